@@ -0,0 +1,84 @@
+package benchmarks;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import entities.WorkItem;
+import utils.IntHashSet;
+import utils.IntObjectMap;
+
+// Visited tracking and ID lookups over every item of the workspace, with boxed Integer keys against the
+// primitive IntHashSet and IntObjectMap. Run with "-prof gc" to compare gc.alloc.rate.norm: the reused
+// IntHashSet allocates nothing per traversal, the HashSet allocates an entry (and an Integer above 127) per item.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IdCollectionsBenchmark {
+    private Set<Integer> boxedSet;
+    private IntHashSet intSet;
+    private Map<Integer, WorkItem> boxedMap;
+    private IntObjectMap<WorkItem> intMap;
+
+    @Setup(Level.Trial)
+    public void fill(WorkspaceState state) {
+        boxedSet = new HashSet<>();
+        intSet = new IntHashSet(state.items.size());
+        boxedMap = new HashMap<>();
+        intMap = new IntObjectMap<>(state.items.size());
+        for (WorkItem wi : state.items) {
+            boxedMap.put(wi.getID(), wi);
+            intMap.put(wi.getID(), wi);
+        }
+    }
+
+    @Benchmark
+    public int visitedBoxed(WorkspaceState state) {
+        boxedSet.clear();
+        for (WorkItem wi : state.items) {
+            boxedSet.add(wi.getID());
+        }
+        return boxedSet.size();
+    }
+
+    @Benchmark
+    public int visitedPrimitive(WorkspaceState state) {
+        intSet.clear();
+        for (WorkItem wi : state.items) {
+            intSet.add(wi.getID());
+        }
+        return intSet.size();
+    }
+
+    @Benchmark
+    public void lookupBoxed(WorkspaceState state, Blackhole blackhole) {
+        for (WorkItem wi : state.items) {
+            blackhole.consume(boxedMap.get(wi.getID()));
+        }
+    }
+
+    @Benchmark
+    public void lookupPrimitive(WorkspaceState state, Blackhole blackhole) {
+        for (WorkItem wi : state.items) {
+            blackhole.consume(intMap.get(wi.getID()));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import entities.WorkItem;
+import persistence.BinarySnapshot;
+import persistence.MappedLineReader;
+import persistence.TextSnapshot;
+import persistence.WorkItemLoader;
+
+// Loading a workspace of a million items, the size the binary format was added for.
+// Kept apart from PersistenceBenchmark so the other benchmarks don't all pay for a million-item trial.
+// The snapshots are written in setup and the generated workspace is dropped before measuring.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LargeLoadBenchmark {
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"WIDE", "DEEP"})
+    public WorkspaceGenerator.Shape shape;
+
+    private Path directory;
+    private Path text;
+    private Path binary;
+
+    @Setup(Level.Trial)
+    public void writeSnapshots() throws IOException {
+        List<WorkItem> roots = WorkspaceGenerator.generate(size, shape, 42);
+        directory = Files.createTempDirectory("pm-bench");
+        text = directory.resolve("data.txt");
+        binary = directory.resolve("data.bin");
+        TextSnapshot.write(text, roots, 64 * 1024);
+        BinarySnapshot.write(binary, roots);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteSnapshots() throws IOException {
+        Files.deleteIfExists(text);
+        Files.deleteIfExists(binary);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public int loadBinary() throws IOException {
+        WorkItemLoader loader = new WorkItemLoader();
+        BinarySnapshot.read(binary, loader);
+        return loader.link().size();
+    }
+
+    @Benchmark
+    public int loadMapped() throws IOException {
+        WorkItemLoader loader = new WorkItemLoader();
+        MappedLineReader.read(text, loader);
+        return loader.link().size();
+    }
+}
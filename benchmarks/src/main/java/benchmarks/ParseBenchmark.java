@@ -0,0 +1,29 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import factories.WorkItemFactory;
+
+// WorkItemFactory.createWorkItem(String) over every data.txt line of the workspace
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+    @Benchmark
+    public void createWorkItem(WorkspaceState state, Blackhole blackhole) {
+        for (String line : state.lines) {
+            blackhole.consume(WorkItemFactory.createWorkItem(line));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import persistence.BinarySnapshot;
+import persistence.MappedLineReader;
+import persistence.ParallelLineReader;
+import persistence.TextSnapshot;
+import persistence.WorkItemLoader;
+
+// Saving and loading the workspace through every snapshot format and loader, in a temp directory.
+// The load benchmarks read files written once per trial, the save benchmarks overwrite their own file.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PersistenceBenchmark {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private Path directory;
+    private Path text;
+    private Path binary;
+
+    @Setup(Level.Trial)
+    public void writeSnapshots(WorkspaceState state) throws IOException {
+        directory = Files.createTempDirectory("pm-bench");
+        text = directory.resolve("data.txt");
+        binary = directory.resolve("data.bin");
+        TextSnapshot.write(text, state.roots, BUFFER_SIZE);
+        BinarySnapshot.write(binary, state.roots);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteSnapshots() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public Path saveText(WorkspaceState state) throws IOException {
+        Path target = directory.resolve("save.txt");
+        TextSnapshot.write(target, state.roots, BUFFER_SIZE);
+        return target;
+    }
+
+    @Benchmark
+    public Path saveBinary(WorkspaceState state) throws IOException {
+        Path target = directory.resolve("save.bin");
+        BinarySnapshot.write(target, state.roots);
+        return target;
+    }
+
+    @Benchmark
+    public int loadScanner() throws IOException {
+        WorkItemLoader loader = new WorkItemLoader();
+        TextSnapshot.read(text, loader);
+        return loader.link().size();
+    }
+
+    @Benchmark
+    public int loadMapped() throws IOException {
+        WorkItemLoader loader = new WorkItemLoader();
+        MappedLineReader.read(text, loader);
+        return loader.link().size();
+    }
+
+    @Benchmark
+    public int loadParallel() throws IOException {
+        WorkItemLoader loader = new WorkItemLoader();
+        ParallelLineReader.read(text, loader);
+        return loader.link().size();
+    }
+
+    @Benchmark
+    public int loadBinary() throws IOException {
+        WorkItemLoader loader = new WorkItemLoader();
+        BinarySnapshot.read(binary, loader);
+        return loader.link().size();
+    }
+}
@@ -0,0 +1,67 @@
+package benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import entities.HierarchyRenderer;
+import entities.WorkItem;
+
+// printHierarchy over the whole workspace, one root at a time, and one HierarchyRenderer for all roots as the list command does.
+// System.out is swapped for a stream that discards its output, so the terminal is not part of the measurement.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RenderBenchmark {
+    private PrintStream stdout;
+
+    @Setup(Level.Trial)
+    public void discardOutput() {
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreOutput() {
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public void printHierarchy(WorkspaceState state) {
+        for (WorkItem root : state.roots) {
+            root.printHierarchy(0, false);
+        }
+    }
+
+    @Benchmark
+    public void printHierarchyWithDetails(WorkspaceState state) {
+        for (WorkItem root : state.roots) {
+            root.printHierarchy(0, true);
+        }
+    }
+
+    @Benchmark
+    public void renderAll(WorkspaceState state) {
+        HierarchyRenderer renderer = new HierarchyRenderer(System.out);
+        for (WorkItem root : state.roots) {
+            renderer.render(root, 0, true);
+        }
+        renderer.flush();
+    }
+}
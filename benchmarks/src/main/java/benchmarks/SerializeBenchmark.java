@@ -0,0 +1,43 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import entities.WorkItem;
+
+// Serializing every item of the workspace, as a String per item and into one reused buffer
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializeBenchmark {
+    @Benchmark
+    public void serializeToString(WorkspaceState state, Blackhole blackhole) {
+        for (WorkItem wi : state.items) {
+            WorkItem parent = wi.getParent();
+            blackhole.consume(wi.serialize(parent != null ? parent.getID() : null));
+        }
+    }
+
+    @Benchmark
+    public int serializeToBuffer(WorkspaceState state) {
+        StringBuilder out = new StringBuilder(256);
+        int length = 0;
+        for (WorkItem wi : state.items) {
+            WorkItem parent = wi.getParent();
+            out.setLength(0);
+            wi.serialize(parent != null ? parent.getID() : null, out);
+            length += out.length();
+        }
+        return length;
+    }
+}
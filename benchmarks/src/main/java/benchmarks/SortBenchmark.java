@@ -0,0 +1,64 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import entities.WorkItem;
+import strategies.SortByID;
+import strategies.SortByName;
+import strategies.SortStrategy;
+
+// The SortStrategy implementations over every item of the workspace, starting from a shuffled copy each time
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SortBenchmark {
+    private final SortStrategy byId = new SortByID();
+    private final SortStrategy byName = new SortByName();
+    private List<WorkItem> shuffled;
+
+    @Setup(Level.Trial)
+    public void shuffle(WorkspaceState state) {
+        shuffled = new ArrayList<>(state.items);
+        Collections.shuffle(shuffled, new Random(42));
+    }
+
+    // The copy is measured too, but it costs the same for every strategy and is small next to the sort.
+    // A per-invocation setup would skew the timings more at the small sizes.
+    @Benchmark
+    public List<WorkItem> sortById() {
+        List<WorkItem> work = new ArrayList<>(shuffled);
+        byId.sort(work);
+        return work;
+    }
+
+    @Benchmark
+    public List<WorkItem> sortByName() {
+        List<WorkItem> work = new ArrayList<>(shuffled);
+        byName.sort(work);
+        return work;
+    }
+
+    @Benchmark
+    public List<WorkItem> copyOnly() {
+        return new ArrayList<>(shuffled);
+    }
+}
@@ -0,0 +1,80 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import utils.LineTokenizer;
+import utils.ParseUtils;
+
+// The fields the loader reads from each data.txt line, split per key against one LineTokenizer scan.
+// Runs up to a million lines, which only needs the lines and not a workspace, so it has its own state.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenizerBenchmark {
+    @State(Scope.Benchmark)
+    public static class Lines {
+        @Param({"1000", "100000", "1000000"})
+        public int size;
+
+        public List<String> lines;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            lines = WorkspaceGenerator.lines(WorkspaceGenerator.generate(size, WorkspaceGenerator.Shape.WIDE, 42));
+        }
+    }
+
+    // How the loader read a line before LineTokenizer: Type, ParentID and the fields each split the line again
+    @Benchmark
+    public long splitFields(Lines lines) {
+        long sum = 0;
+        for (String line : lines.lines) {
+            String type = legacyValue(line, "Type");
+            String parentId = legacyValue(line, "ParentID");
+            Map<String, String> map = ParseUtils.parseKeyValuePairs(line);
+            if (type.equalsIgnoreCase("epic")) sum++;
+            if (parentId != null) sum += Integer.parseInt(parentId);
+            sum += Integer.parseInt(map.get("id")) + map.get("name").length();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long tokenizeFields(Lines lines) {
+        long sum = 0;
+        LineTokenizer tokens = new LineTokenizer();
+        for (String line : lines.lines) {
+            tokens.reset(line);
+            Integer parentId = tokens.getInteger("parentid");
+            if (tokens.valueEqualsIgnoreCase(tokens.find("type"), "epic")) sum++;
+            if (parentId != null) sum += parentId;
+            sum += tokens.getInt("id") + tokens.get("name").length();
+        }
+        return sum;
+    }
+
+    private static String legacyValue(String line, String key) {
+        for (String part : line.split(";")) {
+            String[] kv = part.split("=", 2);
+            if (kv.length == 2 && kv[0].trim().equalsIgnoreCase(key)) return kv[1].trim();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,57 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import entities.WorkItem;
+
+// Walking the hierarchy: the iterator, forEachDescendant, both findById variants and getNextID
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TraversalBenchmark {
+    @Benchmark
+    public long iterate(WorkspaceState state) {
+        long sum = 0;
+        for (WorkItem root : state.roots) {
+            for (WorkItem wi : root) {
+                sum += wi.getID();
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long forEachDescendant(WorkspaceState state) {
+        long[] sum = new long[1];
+        for (WorkItem root : state.roots) {
+            root.forEachDescendant(wi -> sum[0] += wi.getID());
+        }
+        return sum[0];
+    }
+
+    // Full walk of the hierarchy until the ID is found
+    @Benchmark
+    public WorkItem findByIdWalk(WorkspaceState state) {
+        return WorkItem.findById(state.roots, state.nextId());
+    }
+
+    @Benchmark
+    public WorkItem findByIdIndex(WorkspaceState state) {
+        return state.index.findById(state.nextId());
+    }
+
+    @Benchmark
+    public int getNextID(WorkspaceState state) {
+        return WorkItem.getNextID(state.roots);
+    }
+}
@@ -0,0 +1,160 @@
+package benchmarks;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import entities.Epic;
+import entities.Feature;
+import entities.Phase;
+import entities.Task;
+import entities.WorkItem;
+import enums.PhaseType;
+import enums.WorkItemStatus;
+
+// Builds synthetic workspaces for the benchmarks. The output only depends on size, shape and seed,
+// so every fork and every run measures the same data.
+//   WIDE: epics with 10 phases of 10 features of 10 tasks, so depth 3 and large sibling lists
+//   DEEP: epics holding chains of 64 nested features ending in a task, so long parent chains and few siblings
+public class WorkspaceGenerator {
+    public enum Shape { WIDE, DEEP }
+
+    private static final int FANOUT = 10;
+    private static final int CHAIN_LENGTH = 64;
+    private static final WorkItemStatus[] STATUSES = WorkItemStatus.values();
+    private static final PhaseType[] PHASE_TYPES = PhaseType.values();
+
+    private final Random random;
+    private int nextId = 1;
+    private int remaining;
+
+    private WorkspaceGenerator(int size, long seed) {
+        this.random = new Random(seed);
+        this.remaining = size;
+    }
+
+    // Roots of a workspace with size work items in total
+    public static List<WorkItem> generate(int size, Shape shape, long seed) {
+        WorkspaceGenerator generator = new WorkspaceGenerator(size, seed);
+        List<WorkItem> roots = new ArrayList<>();
+        while (generator.remaining > 0) {
+            Epic epic = generator.epic();
+            roots.add(epic);
+            if (shape == Shape.WIDE) {
+                generator.fillWide(epic);
+            } else {
+                generator.fillDeep(epic);
+            }
+        }
+        return roots;
+    }
+
+    // The data.txt lines of the workspace, parents before children
+    public static List<String> lines(List<WorkItem> roots) {
+        List<String> lines = new ArrayList<>();
+        for (WorkItem root : roots) {
+            for (WorkItem wi : root) {
+                WorkItem parent = wi.getParent();
+                lines.add(wi.serialize(parent != null ? parent.getID() : null));
+            }
+        }
+        return lines;
+    }
+
+    public static List<WorkItem> flatten(List<WorkItem> roots) {
+        List<WorkItem> items = new ArrayList<>();
+        for (WorkItem root : roots) {
+            for (WorkItem wi : root) {
+                items.add(wi);
+            }
+        }
+        return items;
+    }
+
+    private void fillWide(Epic epic) {
+        for (int p = 0; p < FANOUT && remaining > 0; p++) {
+            Phase phase = phase();
+            epic.addChild(phase);
+            for (int f = 0; f < FANOUT && remaining > 0; f++) {
+                Feature feature = feature();
+                phase.addChild(feature);
+                for (int t = 0; t < FANOUT && remaining > 0; t++) {
+                    feature.addChild(task());
+                }
+            }
+        }
+    }
+
+    private void fillDeep(Epic epic) {
+        for (int c = 0; c < FANOUT && remaining > 0; c++) {
+            WorkItem parent = epic;
+            for (int depth = 0; depth < CHAIN_LENGTH - 1 && remaining > 1; depth++) {
+                Feature feature = feature();
+                parent.addChild(feature);
+                parent = feature;
+            }
+            if (remaining > 0) parent.addChild(task());
+        }
+    }
+
+    private <T extends WorkItem> T withId(T item) {
+        item.setID(nextId++);
+        remaining--;
+        return item;
+    }
+
+    private Epic epic() {
+        LocalDate start = date();
+        return withId(Epic.builder()
+            .setName(name("Epic"))
+            .setStatus(status())
+            .setDescription("Generated epic for benchmarks")
+            .setStartDate(start)
+            .setEndDate(start.plusDays(90))
+            .build());
+    }
+
+    private Phase phase() {
+        LocalDate start = date();
+        return withId(Phase.builder()
+            .setName(name("Phase"))
+            .setStatus(status())
+            .setPhaseType(PHASE_TYPES[random.nextInt(PHASE_TYPES.length)])
+            .setStartDate(start)
+            .setEndDate(start.plusDays(14))
+            .build());
+    }
+
+    private Feature feature() {
+        return withId(Feature.builder()
+            .setName(name("Feature"))
+            .setStatus(status())
+            .setDescription("Generated feature")
+            .setEstimatedHours((double) (1 + random.nextInt(80)))
+            .build());
+    }
+
+    private Task task() {
+        return withId(Task.builder()
+            .setName(name("Task"))
+            .setStatus(status())
+            .setDescription("Generated task")
+            .setDueDate(date())
+            .setEstimatedHours((double) (1 + random.nextInt(16)))
+            .build());
+    }
+
+    // Random suffix so name sorting has real work to do
+    private String name(String type) {
+        return type + " " + Integer.toString(random.nextInt(1 << 30), 36);
+    }
+
+    private WorkItemStatus status() {
+        return STATUSES[random.nextInt(STATUSES.length)];
+    }
+
+    private LocalDate date() {
+        return LocalDate.of(2025, 1, 1).plusDays(random.nextInt(365));
+    }
+}
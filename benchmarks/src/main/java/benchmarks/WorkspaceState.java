@@ -0,0 +1,57 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import entities.WorkItem;
+import entities.WorkItemIndex;
+
+// Generated workspace shared by the benchmarks of one trial, for every size and shape combination
+@State(Scope.Benchmark)
+public class WorkspaceState {
+    private static final long SEED = 42;
+    private static final int LOOKUPS = 1024; // Power of two, see nextId
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"WIDE", "DEEP"})
+    public WorkspaceGenerator.Shape shape;
+
+    public List<WorkItem> roots;
+    public List<WorkItem> items;
+    public List<String> lines;
+    public WorkItemIndex index;
+    private int[] lookupIds;
+    private int lookup;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        roots = WorkspaceGenerator.generate(size, shape, SEED);
+        items = WorkspaceGenerator.flatten(roots);
+        lines = WorkspaceGenerator.lines(roots);
+        index = new WorkItemIndex(new ArrayList<>());
+        for (WorkItem root : roots) {
+            index.addRoot(root);
+        }
+
+        Random random = new Random(SEED);
+        lookupIds = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookupIds[i] = 1 + random.nextInt(size);
+        }
+    }
+
+    // Cycles through a fixed set of random IDs, so lookups hit every part of the tree
+    public int nextId() {
+        lookup = (lookup + 1) & (LOOKUPS - 1);
+        return lookupIds[lookup];
+    }
+}
@@ -1,13 +1,11 @@
 package app;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -25,12 +23,49 @@ import validators.NotTaskValidator;
 import factories.WorkItemAbstractFactory;
 import factories.DefaultWorkItemFactory;
 import factories.AgileWorkItemFactory;
+import persistence.WorkItemJournal;
+import persistence.WorkItemLoader;
+import persistence.BinarySnapshot;
+import persistence.MappedLineReader;
+import persistence.ParallelLineReader;
+import persistence.TextSnapshot;
+import sync.BatchingSyncEngine;
+import sync.InProcessSyncServer;
+import sync.SyncResult;
+import utils.IdAllocator;
 
 public class Main {
     private static WorkItemAbstractFactory workItemFactory = new DefaultWorkItemFactory();
     private static SortStrategy sortStrategy = new SortByID(); // Default strategy
+    private static boolean binaryStorage = "binary".equalsIgnoreCase(System.getProperty("pm.storage")); // Text by default
+    // "scanner", "mapped" or "parallel"; parallel parsing is the default when there is more than one core
+    private static final String LOADER_MODE = System.getProperty("pm.loader",
+        Runtime.getRuntime().availableProcessors() > 1 ? "parallel" : "scanner");
     private static List<WorkItem> workItems = new ArrayList<>();
+    private static final WorkItemIndex workItemIndex = new WorkItemIndex(workItems);
+    private static final IdAllocator idAllocator = new IdAllocator();
     private static final String DATA_FILE = "data.txt";
+    private static final String BINARY_DATA_FILE = "data.bin";
+    private static final String JOURNAL_FILE = "data.journal";
+    private static final String SYNC_CHECKPOINT_FILE = "sync.checkpoint";
+    private static final int SAVE_BUFFER_SIZE = 1 << 16;
+    private static final int COMPACTION_THRESHOLD = 1000; // Journal records before data.txt is rewritten
+    private static final WorkItemJournal journal = new WorkItemJournal(Paths.get(JOURNAL_FILE));
+    // Activity events are written by a background thread; the log is drained on exit
+    private static final ActivityLoggerObserver activityLogger = ActivityLoggerObserver.builder()
+        .setAsync(true)
+        .setFlushIntervalMillis(Long.getLong("pm.activitylog.flush", 200))
+        .setFsyncPolicy(ActivityLoggerObserver.FsyncPolicy.valueOf(
+            System.getProperty("pm.activitylog.fsync", "never").toUpperCase()))
+        .build();
+    // Sync goes to an in-process stand-in server until a real transport is plugged in
+    private static final BatchingSyncEngine syncEngine = BatchingSyncEngine.builder()
+        .setTransport(new InProcessSyncServer(20, 60))
+        .setBatchSize(Integer.getInteger("pm.sync.batch", 100))
+        .setMaxInFlight(Integer.getInteger("pm.sync.inflight", 16))
+        .setCheckpointFile(Paths.get(SYNC_CHECKPOINT_FILE))
+        .setProgressOutput(System.out)
+        .build();
     private static Scanner scanner = new Scanner(System.in);
     private static final Logger logger = Logger.getLogger(Main.class.getName());
 
@@ -51,9 +86,11 @@ public class Main {
     }
 
     public static void main(String[] args) {
+        // Ctrl+C skips the finally below, the hook still drains the activity log
+        Runtime.getRuntime().addShutdownHook(new Thread(Main::closeLogs, "shutdown"));
         try {
             // Add observer
-            WorkItem.addObserver(new ActivityLoggerObserver());
+            WorkItem.addObserver(activityLogger);
 
             // Load work items from data.txt
             loadData();
@@ -66,13 +103,17 @@ public class Main {
                 String input = scanner.nextLine().trim();
     
                 if (input.equalsIgnoreCase("exit")) {
-                    saveData();
+                    compact();
                     System.out.println("Goodbye!");
                     break;
                 } else if (input.equalsIgnoreCase("info")) {
                     showInfo();
                 } else if (input.equalsIgnoreCase("list")) {
                     listWorkItems(true);
+                } else if (input.toLowerCase().startsWith("list ")) {
+                    listPage(input.substring(5));
+                } else if (input.equalsIgnoreCase("more")) {
+                    listNextPage();
                 } else if (input.equalsIgnoreCase("new")) {
                     createNewWorkItem();
                 } else if (input.equalsIgnoreCase("delete")) {
@@ -89,6 +130,14 @@ public class Main {
                 } else if (input.equalsIgnoreCase("theme agile")) {
                     workItemFactory = new AgileWorkItemFactory();
                     System.out.println("Switched to Agile theme.");
+                } else if (input.equalsIgnoreCase("storage text")) {
+                    binaryStorage = false;
+                    compact();
+                    System.out.println("Switched to text storage (" + DATA_FILE + ").");
+                } else if (input.equalsIgnoreCase("storage binary")) {
+                    binaryStorage = true;
+                    compact();
+                    System.out.println("Switched to binary storage (" + BINARY_DATA_FILE + ").");
                 } else if (input.equalsIgnoreCase("quick epic")) {
                     createQuickEpic();
                 } else if (input.equalsIgnoreCase("quick phase")) {
@@ -99,6 +148,8 @@ public class Main {
                     createQuickMilestone();
                 } else if (input.equalsIgnoreCase("quick task")) {
                     createQuickTask();
+                } else if (input.equalsIgnoreCase("import")) {
+                    importWorkItems();
                 } else if (input.equalsIgnoreCase("sync")) {
                     syncAllWorkItems();
                 } else {
@@ -108,6 +159,19 @@ public class Main {
         } catch (Exception e) {
             logger.log(Level.WARNING, "An unexpected error occurred.", e);
             System.out.println("An unexpected error occurred.");
+        } finally {
+            // Also on end of input and unexpected errors, not just on exit
+            closeLogs();
+        }
+    }
+
+    // Writes out the queued activity log lines and closes the journal; safe to call more than once
+    private static void closeLogs() {
+        activityLogger.close();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to close journal", e);
         }
     }
 
@@ -115,27 +179,127 @@ public class Main {
         System.out.println("Available commands:");
         System.out.println("- info            : Show this info");
         System.out.println("- list            : List all items");
+        System.out.println("- list [page N] [depth N] [from ID] [brief]");
+        System.out.println("                  : List N items at a time, collapse items below a depth, start at an item, skip details");
+        System.out.println("- more            : Show the next page of the last list");
         System.out.println("- new             : Create a new item");
         System.out.println("- delete          : Delete an existing item");
         System.out.println("- sort id         : Sort root epics by ID (children are always sorted by ID)");
         System.out.println("- sort name       : Sort root epics by name (children are always sorted by ID)");
         System.out.println("- theme default   : Use default work item creation");
         System.out.println("- theme agile     : Use agile work item creation");
+        System.out.println("- storage text    : Save work items as text (data.txt)");
+        System.out.println("- storage binary  : Save work items in the compact binary format (data.bin)");
         System.out.println("- quick epic      : Create a sample epic");
         System.out.println("- quick phase     : Create a sample phase");
         System.out.println("- quick feature   : Create a sample feature");
         System.out.println("- quick milestone : Create a sample milestone");
         System.out.println("- quick task      : Create a sample task");
-        System.out.println("- sync            : Simulate syncing all work items to a server (multithreaded)");
+        System.out.println("- import          : Import the work items of another data file under new IDs");
+        System.out.println("- sync            : Send the items changed or deleted since the last sync to the server in batches");
         System.out.println("- exit            : Quit the program");
     }
 
     private static void listWorkItems(boolean printDetails) {
         List<WorkItem> roots = new ArrayList<>(workItems);
         sortStrategy.sort(roots);
-        roots.stream()
-            .filter(wi -> wi instanceof Epic)
-            .forEach(wi -> wi.printHierarchy(0, printDetails));
+        // One renderer for all epics, so the whole list reaches the console in a few large writes
+        HierarchyRenderer renderer = new HierarchyRenderer(System.out);
+        for (WorkItem wi : roots) {
+            if (wi instanceof Epic) renderer.render(wi, 0, printDetails);
+        }
+        renderer.flush();
+    }
+
+    // Options of a paged list, kept so "more" can show the page after it
+    private static class ListOptions {
+        int pageSize = Integer.MAX_VALUE;
+        int maxDepth = Integer.MAX_VALUE;
+        Integer fromId;
+        boolean printDetails = true;
+
+        // Parses "page 20 depth 1 from 57 brief", in any order. Returns null if the options are invalid.
+        static ListOptions parse(String text) {
+            ListOptions options = new ListOptions();
+            String[] words = text.trim().split("\\s+");
+            try {
+                for (int i = 0; i < words.length; i++) {
+                    String word = words[i].toLowerCase();
+                    if (word.equals("brief")) {
+                        options.printDetails = false;
+                    } else if (i + 1 < words.length && word.equals("page")) {
+                        options.pageSize = Integer.parseInt(words[++i]);
+                        if (options.pageSize < 1) return null;
+                    } else if (i + 1 < words.length && word.equals("depth")) {
+                        options.maxDepth = Integer.parseInt(words[++i]);
+                        if (options.maxDepth < 0) return null;
+                    } else if (i + 1 < words.length && word.equals("from")) {
+                        options.fromId = Integer.parseInt(words[++i]);
+                    } else {
+                        return null;
+                    }
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            return options;
+        }
+    }
+
+    private static ListOptions lastListOptions;
+
+    private static void listPage(String optionsText) {
+        ListOptions options = ListOptions.parse(optionsText);
+        if (options == null) {
+            System.out.println("Usage: list [page N] [depth N] [from ID] [brief]");
+            return;
+        }
+        renderPage(options);
+    }
+
+    private static void listNextPage() {
+        if (lastListOptions == null || lastListOptions.fromId == null) {
+            System.out.println("No more items to list.");
+            return;
+        }
+        renderPage(lastListOptions);
+    }
+
+    // Renders one page of the epics and their subtrees, stopping as soon as the page is full
+    private static void renderPage(ListOptions options) {
+        WorkItem from = null;
+        if (options.fromId != null) {
+            from = workItemIndex.findById(options.fromId);
+            WorkItem root = from;
+            while (root != null && root.getParent() != null) {
+                root = root.getParent();
+            }
+            if (!(root instanceof Epic)) {
+                System.out.println("No work item found with ID " + options.fromId + ".");
+                lastListOptions = null;
+                return;
+            }
+        }
+
+        List<WorkItem> roots = new ArrayList<>();
+        for (WorkItem wi : workItems) {
+            if (wi instanceof Epic) roots.add(wi);
+        }
+        sortStrategy.sort(roots);
+
+        HierarchyRenderer renderer = HierarchyRenderer.builder()
+            .setOutput(System.out)
+            .setPageSize(options.pageSize)
+            .setMaxDepth(options.maxDepth)
+            .build();
+        WorkItem next = renderer.renderPage(roots, from, options.printDetails);
+        renderer.flush();
+
+        options.fromId = next != null ? next.getID() : null;
+        lastListOptions = options;
+        if (next != null) {
+            System.out.println("-- More items from ID " + next.getID() + ", type 'more' to continue --");
+        }
     }
 
     private static void createNewWorkItem() {
@@ -183,8 +347,8 @@ public class Main {
             // Build the validation chain
             InputValidator validator = new NotEmptyValidator();
             validator.linkWith(new IntegerValidator())
-                    .linkWith(new ExistingWorkItemValidator(workItems))
-                    .linkWith(new NotTaskValidator(workItems));
+                    .linkWith(new ExistingWorkItemValidator(workItemIndex))
+                    .linkWith(new NotTaskValidator(workItemIndex));
 
             while (true) {
                 System.err.println();
@@ -193,7 +357,7 @@ public class Main {
 
                 if (validator.validate(pid)) {
                     int parentId = Integer.parseInt(pid);
-                    parent = WorkItem.findById(workItems, parentId);
+                    parent = workItemIndex.findById(parentId);
                     break;
                 }
             }
@@ -206,7 +370,7 @@ public class Main {
         switch (type) {
             case 1: // ------ Epic
                 Epic epic = (Epic) workItemFactory.createEpic();
-                epic.setID(WorkItem.getNextID(workItems));
+                epic.setID(idAllocator.next());
                 if (status != null) {
                     epic.setStatus(status);
                 }
@@ -228,12 +392,13 @@ public class Main {
                 );
 
                 // Add to collection and save
-                workItems.add(epic);
+                workItemIndex.addRoot(epic);
                 WorkItem.notifyWorkItemAdded(epic);
+                recordAdded(epic);
                 break;
             case 2: // ------ Phase
                 Phase phase = workItemFactory.createPhase();
-                phase.setID(WorkItem.getNextID(workItems));
+                phase.setID(idAllocator.next());
                 if (status != null) {
                     phase.setStatus(status);
                 }
@@ -272,10 +437,11 @@ public class Main {
                 // Add to collection and save
                 parent.addChild(phase);
                 WorkItem.notifyWorkItemAdded(phase);
+                recordAdded(phase);
                 break;
             case 3: // ------ Feature
                 Feature feature = workItemFactory.createFeature();
-                feature.setID(WorkItem.getNextID(workItems));
+                feature.setID(idAllocator.next());
                 if (status != null) {
                     feature.setStatus(status);
                 }
@@ -296,10 +462,11 @@ public class Main {
                 // Add to collection and save
                 parent.addChild(feature);
                 WorkItem.notifyWorkItemAdded(feature);
+                recordAdded(feature);
                 break;
             case 4: // ------ Milestone
                 Milestone milestone = workItemFactory.createMilestone();
-                milestone.setID(WorkItem.getNextID(workItems));
+                milestone.setID(idAllocator.next());
                 if (status != null) {
                     milestone.setStatus(status);
                 }
@@ -314,10 +481,11 @@ public class Main {
                 // Add to collection and save
                 parent.addChild(milestone);
                 WorkItem.notifyWorkItemAdded(milestone);
+                recordAdded(milestone);
                 break;
             case 5: // ------ Task
                 Task task = workItemFactory.createTask();
-                task.setID(WorkItem.getNextID(workItems));
+                task.setID(idAllocator.next());
                 if (status != null) {
                     task.setStatus(status);
                 }
@@ -344,12 +512,10 @@ public class Main {
                 // Add to collection and save
                 parent.addChild(task);
                 WorkItem.notifyWorkItemAdded(task);
+                recordAdded(task);
                 break;
         }
 
-        // Save data
-        saveData();
-
         System.out.println("Work item created!");
     }
 
@@ -369,53 +535,72 @@ public class Main {
                 System.out.println("Invalid input. Please enter a valid integer ID.");
                 continue;
             }
-            toDelete = WorkItem.findById(workItems, id);
+            toDelete = workItemIndex.findById(id);
             if (toDelete == null) {
                 System.out.println("No work item found with ID " + id + ". Please try again.");
             }
         }
 
-        // Remove from parent if not a root item
-        boolean removed = false;
-        for (WorkItem root : workItems) {
-            if (root == toDelete) {
-                workItems.remove(root);
-                notifyDeletionRecursive(root);
-                removed = true;
-                break;
-            } else {
-                removed = removeFromChildren(root, toDelete);
-                if (removed) break;
-            }
-        }
-
-        if (removed) {
+        // Remove from parent, or from the roots if it is an epic
+        if (workItemIndex.remove(toDelete)) {
+            WorkItem.notifySubtreeDeleted(toDelete, countSubtree(toDelete));
             System.out.println("Work Item ID " + toDelete.getID() + " has been deleted.");
-            saveData();
+            recordDeleted(toDelete);
         } else {
             System.out.println("Failed to delete work item.");
         }
     }
 
-    private static boolean removeFromChildren(WorkItem parent, WorkItem toDelete) {
-        List<WorkItem> children = parent.getChildren();
-        if (children.remove(toDelete)) {
-            notifyDeletionRecursive(toDelete);
-            return true;
+    private static int countSubtree(WorkItem root) {
+        int[] count = new int[1];
+        root.forEachDescendant(wi -> count[0]++);
+        return count[0];
+    }
+
+    // Adds the work items of another data file under new IDs, as one change
+    private static void importWorkItems() {
+        System.out.println("Enter the path of the data file to import (.txt or .bin):");
+        Path path = Paths.get(scanner.nextLine().trim());
+        if (!Files.isRegularFile(path)) {
+            System.out.println("File not found: " + path);
+            return;
         }
-        for (WorkItem child : children) {
-            if (removeFromChildren(child, toDelete)) {
-                return true;
+
+        WorkItemLoader loader = new WorkItemLoader();
+        try {
+            if (path.toString().endsWith(".bin")) {
+                BinarySnapshot.read(path, loader);
+            } else {
+                TextSnapshot.read(path, loader);
             }
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.SEVERE, "Failed to import " + path, e);
+            System.out.println("An error occurred while importing " + path + ". Please check the file.");
+            return;
         }
-        return false;
-    }
 
-    private static void notifyDeletionRecursive(WorkItem item) {
-        for (WorkItem child : item.getChildren()) {
-            notifyDeletionRecursive(child);
+        List<WorkItem> roots = loader.link();
+        List<WorkItem> imported = new ArrayList<>(loader.size());
+        for (WorkItem root : roots) {
+            root.forEachDescendant(imported::add);
+        }
+        if (imported.isEmpty()) {
+            System.out.println("No work items found in " + path);
+            return;
         }
-        WorkItem.notifyWorkItemDeleted(item);
+
+        // IDs in the file only relate the items to each other, so the whole batch gets one block of fresh IDs
+        int nextId = idAllocator.reserve(imported.size());
+        for (WorkItem wi : imported) {
+            wi.setID(nextId++);
+        }
+        for (WorkItem root : roots) {
+            workItemIndex.addRoot(root);
+        }
+
+        WorkItem.notifyWorkItemsAdded(imported);
+        compact(); // One snapshot instead of a journal record per item
+        System.out.println("Imported " + imported.size() + " work items.");
     }
 
     private static void createQuickEpic() {
@@ -426,10 +611,10 @@ public class Main {
             .setStartDate(LocalDate.now())
             .setEndDate(LocalDate.now().plusDays(60))
             .build();
-        epic.setID(WorkItem.getNextID(workItems));
-        workItems.add(epic);
+        epic.setID(idAllocator.next());
+        workItemIndex.addRoot(epic);
         WorkItem.notifyWorkItemAdded(epic);
-        saveData();
+        recordAdded(epic);
         System.out.println("Quick epic created with Builder!");
     }
 
@@ -441,8 +626,8 @@ public class Main {
         // Build the validation chain
         InputValidator validator = new NotEmptyValidator();
         validator.linkWith(new IntegerValidator())
-                .linkWith(new ExistingWorkItemValidator(workItems))
-                .linkWith(new NotTaskValidator(workItems));
+                .linkWith(new ExistingWorkItemValidator(workItemIndex))
+                .linkWith(new NotTaskValidator(workItemIndex));
 
         while (true) {
             System.err.println();
@@ -451,7 +636,7 @@ public class Main {
 
             if (validator.validate(pid)) {
                 int parentId = Integer.parseInt(pid);
-                parent = WorkItem.findById(workItems, parentId);
+                parent = workItemIndex.findById(parentId);
                 break;
             }
         }
@@ -463,10 +648,10 @@ public class Main {
             .setStartDate(LocalDate.now())
             .setEndDate(LocalDate.now().plusDays(14))
             .build();
-        phase.setID(WorkItem.getNextID(workItems));
+        phase.setID(idAllocator.next());
         parent.addChild(phase);
         WorkItem.notifyWorkItemAdded(phase);
-        saveData();
+        recordAdded(phase);
         System.out.println("Quick phase created with Builder!");
     }
 
@@ -478,8 +663,8 @@ public class Main {
         // Build the validation chain
         InputValidator validator = new NotEmptyValidator();
         validator.linkWith(new IntegerValidator())
-                .linkWith(new ExistingWorkItemValidator(workItems))
-                .linkWith(new NotTaskValidator(workItems));
+                .linkWith(new ExistingWorkItemValidator(workItemIndex))
+                .linkWith(new NotTaskValidator(workItemIndex));
 
         while (true) {
             System.err.println();
@@ -488,7 +673,7 @@ public class Main {
 
             if (validator.validate(pid)) {
                 int parentId = Integer.parseInt(pid);
-                parent = WorkItem.findById(workItems, parentId);
+                parent = workItemIndex.findById(parentId);
                 break;
             }
         }
@@ -499,10 +684,10 @@ public class Main {
             .setDescription("This is a sample feature")
             .setEstimatedHours(7.0)
             .build();
-        feature.setID(WorkItem.getNextID(workItems));
+        feature.setID(idAllocator.next());
         parent.addChild(feature);
         WorkItem.notifyWorkItemAdded(feature);
-        saveData();
+        recordAdded(feature);
         System.out.println("Quick feature created with Builder!");
     }
 
@@ -514,8 +699,8 @@ public class Main {
         // Build the validation chain
         InputValidator validator = new NotEmptyValidator();
         validator.linkWith(new IntegerValidator())
-                .linkWith(new ExistingWorkItemValidator(workItems))
-                .linkWith(new NotTaskValidator(workItems));
+                .linkWith(new ExistingWorkItemValidator(workItemIndex))
+                .linkWith(new NotTaskValidator(workItemIndex));
 
         while (true) {
             System.err.println();
@@ -524,7 +709,7 @@ public class Main {
 
             if (validator.validate(pid)) {
                 int parentId = Integer.parseInt(pid);
-                parent = WorkItem.findById(workItems, parentId);
+                parent = workItemIndex.findById(parentId);
                 break;
             }
         }
@@ -534,10 +719,10 @@ public class Main {
             .setStatus(workItemFactory.getDefaultWorkItemStatus())
             .setDueDate(LocalDate.now().plusDays(28))
             .build();
-        milestone.setID(WorkItem.getNextID(workItems));
+        milestone.setID(idAllocator.next());
         parent.addChild(milestone);
         WorkItem.notifyWorkItemAdded(milestone);
-        saveData();
+        recordAdded(milestone);
         System.out.println("Quick milestone created with Builder!");
     }
 
@@ -548,8 +733,8 @@ public class Main {
         // Build the validation chain
         InputValidator validator = new NotEmptyValidator();
         validator.linkWith(new IntegerValidator())
-                .linkWith(new ExistingWorkItemValidator(workItems))
-                .linkWith(new NotTaskValidator(workItems));
+                .linkWith(new ExistingWorkItemValidator(workItemIndex))
+                .linkWith(new NotTaskValidator(workItemIndex));
 
         while (true) {
             System.err.println();
@@ -558,7 +743,7 @@ public class Main {
 
             if (validator.validate(pid)) {
                 int parentId = Integer.parseInt(pid);
-                parent = WorkItem.findById(workItems, parentId);
+                parent = workItemIndex.findById(parentId);
                 break;
             }
         }
@@ -570,10 +755,10 @@ public class Main {
             .setDueDate(LocalDate.now().plusDays(3))
             .setEstimatedHours(2.0)
             .build();
-        task.setID(WorkItem.getNextID(workItems));
+        task.setID(idAllocator.next());
         parent.addChild(task);
         WorkItem.notifyWorkItemAdded(task);
-        saveData();
+        recordAdded(task);
         System.out.println("Quick task created with Builder!");
     }
 
@@ -664,105 +849,77 @@ public class Main {
     }
 
     private static void syncAllWorkItems() {
-        // Gather all work items (roots and children) in flat list
-        List<WorkItem> allItems = new ArrayList<>();
-        for (WorkItem root : workItems) {
-            for (WorkItem wi : root) {
-                allItems.add(wi);
-            }
-        }
-        if (allItems.isEmpty()) {
-            System.out.println("No work items to sync.");
+        // Only items changed since the last successful sync are sent; everything counts as changed after startup
+        List<WorkItem> changed = workItemIndex.getDirtyItems();
+        int deleted = workItemIndex.getDeletedIds().size();
+        if (changed.isEmpty() && deleted == 0) {
+            System.out.println("No changes to sync.");
             return;
         }
 
-        System.out.println("Starting sync of " + allItems.size() + " work items...");
-
-        ExecutorService executor = Executors.newFixedThreadPool(5);
-        CountDownLatch latch = new CountDownLatch(allItems.size());
-        ConcurrentHashMap<WorkItem, Boolean> synced = new ConcurrentHashMap<>();
-
-        for (WorkItem wi : allItems) {
-            executor.submit(() -> {
-                try {
-                    int seconds = 1 + new Random().nextInt(3); // 1 to 3 seconds random time
-                    Thread.sleep(seconds * 1000L);
-                    synced.put(wi, true);
-                    int done = synced.size();
-                    int total = allItems.size();
-                    int percent = (int) ((done * 100.0) / total);
-                    System.out.println("Synced: " + wi.getClass().getSimpleName() + " ID=" + wi.getID() + " (" + percent + "% done)");
-                } catch (InterruptedException ignored) {
-                } finally {
-                    latch.countDown();
-                }
-            });
-        }
+        System.out.println("Starting sync of " + changed.size() + " changed and " + deleted + " deleted work items...");
 
         try {
-            while (!latch.await(1, TimeUnit.SECONDS)) {
-                int done = synced.size();
-                int total = allItems.size();
-                int percent = (int) ((done * 100.0) / total);
-                System.out.println("Progress: " + percent + "% (" + done + "/" + total + ")");
+            SyncResult result = syncEngine.syncChanges(workItemIndex);
+            System.out.println("Synced " + result.getSyncedItems() + "/" + result.getItems() + " work items and "
+                + result.getSyncedDeletes() + "/" + result.getDeletes() + " deletes in "
+                + result.getBatches() + " requests (" + result.getElapsedMillis() + " ms)");
+            for (SyncResult.Wave wave : result.getWaves()) {
+                System.out.println("  Wave " + wave);
+            }
+            if (result.isComplete()) {
+                System.out.println("Sync complete!");
+            } else {
+                System.out.println(result.getFailedBatches() + " requests failed. Run sync again to resume.");
             }
-            System.out.println("Sync complete!");
+            logger.log(Level.INFO, "Sync metrics: " + syncEngine.getMetrics());
         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             logger.log(Level.WARNING, "An error occurred during the sync.", e);
             System.out.println("Sync interrupted.");
-        } finally {
-            executor.shutdownNow();
         }
     }
 
     private static void loadData() {
-        File file = new File(DATA_FILE);
-        if (!file.exists()) {
+        Path preferred = Paths.get(binaryStorage ? BINARY_DATA_FILE : DATA_FILE);
+        Path other = Paths.get(binaryStorage ? DATA_FILE : BINARY_DATA_FILE);
+        // A workspace saved in the other storage mode is converted on the next save
+        Path snapshot = Files.exists(preferred) ? preferred : other;
+
+        if (Files.exists(snapshot)) {
+            loadSnapshot(snapshot);
+        } else {
             System.out.println("No existing data found. Starting fresh.");
-            return;
         }
+        replayJournal();
+    }
 
-        try (Scanner fileScanner = new Scanner(file)) {
-            Map<WorkItem, Integer> allItems = new HashMap<>();
-
-            // Parse each line into a WorkItem, store in a local list
-            while (fileScanner.hasNextLine()) {
-                String line = fileScanner.nextLine().trim();
-                Integer parentID = WorkItem.getParentIdFromLine(line);
+    private static void loadSnapshot(Path path) {
+        try {
+            WorkItemLoader loader = new WorkItemLoader();
 
-                WorkItem parsedItem = WorkItemFactory.createWorkItem(line);
-                if (parsedItem != null) {
-                    allItems.put(parsedItem, parentID);
+            // Parse each item, indexed by ID
+            if (path.equals(Paths.get(BINARY_DATA_FILE))) {
+                BinarySnapshot.read(path, loader);
+            } else {
+                verifySnapshot(path);
+                if (LOADER_MODE.equalsIgnoreCase("parallel")) {
+                    ParallelLineReader.read(path, loader);
+                } else if (LOADER_MODE.equalsIgnoreCase("mapped")) {
+                    MappedLineReader.read(path, loader);
+                } else {
+                    TextSnapshot.read(path, loader);
                 }
             }
 
             // Populate global list with parent-child relationships
-            for (Map.Entry<WorkItem, Integer> item : allItems.entrySet()) {
-                Integer parentId = item.getValue();
-                if (parentId != null) {
-                    WorkItem parent = allItems.keySet().stream()
-                            .filter(wi -> wi.getID().equals(parentId))
-                            .findFirst()
-                            .orElse(null);
-                    // Parent can't be null and can't be a Task
-                    if (parent != null && !(parent instanceof Task)) {
-                        // Prevent circular reference
-                        if (!WorkItem.wouldCreateCycle(parent, item.getKey())) {
-                            parent.addChild(item.getKey());
-                        } else {
-                            logger.log(Level.WARNING, "Skipped circular reference for item ID " + item.getKey().getID());  
-                            System.out.println("Warning: Skipped circular reference for item ID " + item.getKey().getID());
-                        }
-                    } else {
-                        logger.log(Level.WARNING, "Invalid Parent ID, skipped item ID " + item.getKey().getID());  
-                        System.out.println("Warning: Invalid Parent ID, skipped item ID " + item.getKey().getID());
-                    }
-                } else {
-                    workItems.add(item.getKey());
-                }
+            for (WorkItem root : loader.link()) {
+                workItemIndex.addRoot(root);
             }
+            idAllocator.seed(loader.getMaxId());
         } catch (IOException e) {
             logger.log(Level.SEVERE, "Failed to load data", e); // Internal log
+            keepCopy(path);
             System.out.println("An error occurred while loading data. Please try again."); // User-friendly
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Unexpected error during data load", e);
@@ -770,12 +927,91 @@ public class Main {
         }
     }
 
-    private static void saveData() {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(DATA_FILE))) {
-            Set<Integer> visited = new HashSet<>();
-            for (WorkItem wi : workItems) {
-                saveWorkItemRecursive(wi, null, writer, visited); // null for root parent
+    // A text snapshot that fails its checksum is still loaded as far as possible, but a copy is kept aside first
+    private static void verifySnapshot(Path path) {
+        try {
+            if (TextSnapshot.verify(path) == TextSnapshot.Verification.INVALID) {
+                logger.log(Level.SEVERE, "Checksum mismatch in " + path);
+                keepCopy(path);
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to verify data checksum", e);
+        }
+    }
+
+    // Keeps a damaged snapshot aside, since the next save replaces it
+    private static void keepCopy(Path path) {
+        try {
+            Path copy = TextSnapshot.keepCopy(path);
+            System.out.println("Warning: " + path + " could not be fully loaded, a copy was kept in " + copy);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to keep a copy of " + path, e);
+        }
+    }
+
+    // Applies the changes made since the last snapshot
+    private static void replayJournal() {
+        try {
+            int applied = journal.replay(workItemIndex);
+            idAllocator.seed(journal.getMaxId());
+            if (applied > 0) {
+                logger.log(Level.INFO, "Replayed " + applied + " journal records");
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to replay journal", e);
+            System.out.println("An error occurred while loading recent changes. Please try again.");
+        }
+    }
+
+    private static void recordAdded(WorkItem item) {
+        try {
+            journal.appendAdd(item);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to append to journal", e);
+            compact(); // Fall back to a full snapshot
+            return;
+        }
+        compactIfNeeded();
+    }
+
+    private static void recordDeleted(WorkItem item) {
+        try {
+            journal.appendDelete(item);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to append to journal", e);
+            compact(); // Fall back to a full snapshot
+            return;
+        }
+        compactIfNeeded();
+    }
+
+    private static void compactIfNeeded() {
+        if (journal.getRecordCount() >= COMPACTION_THRESHOLD) {
+            compact();
+        }
+    }
+
+    // Writes a full snapshot, after which the journal records are no longer needed
+    private static void compact() {
+        if (!saveData()) return;
+        try {
+            journal.clear(idAllocator.getLastId());
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to clear journal", e);
+        }
+    }
+
+    // Writes the snapshot in the current storage mode and removes the one in the other mode, which is now stale
+    private static boolean saveData() {
+        try {
+            if (binaryStorage) {
+                BinarySnapshot.write(Paths.get(BINARY_DATA_FILE), workItems);
+                Files.deleteIfExists(Paths.get(DATA_FILE));
+            } else {
+                TextSnapshot.write(Paths.get(DATA_FILE), workItems, SAVE_BUFFER_SIZE);
+                Files.deleteIfExists(Paths.get(BINARY_DATA_FILE));
             }
+            return true;
         } catch (IOException e) {
             logger.log(Level.SEVERE, "Failed to save data", e);
             System.out.println("An error occurred while saving data. Please try again.");
@@ -783,13 +1019,6 @@ public class Main {
             logger.log(Level.SEVERE, "Unexpected error during data save", e);
             System.out.println("An unexpected error occurred. Please contact support.");
         }
-    }
-
-    private static void saveWorkItemRecursive(WorkItem wi, Integer parentId, PrintWriter writer, Set<Integer> visited) {
-        if (wi == null || !visited.add(wi.getID())) return;
-        writer.println(wi.serialize(parentId));
-        for (WorkItem child : wi.getChildren()) {
-            saveWorkItemRecursive(child, wi.getID(), writer, visited);
-        }
+        return false;
     }
 }
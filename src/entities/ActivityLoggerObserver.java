@@ -2,22 +2,220 @@ package entities;
 
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-public class ActivityLoggerObserver implements WorkItemObserver {
+// Writes added/deleted work items to activityLog.log.
+// By default every event opens, appends and closes the file on the caller's thread.
+// In async mode events go into a bounded queue instead, and a background writer drains them in batches
+// to a channel that stays open until close(). A full queue blocks the caller rather than dropping events.
+public class ActivityLoggerObserver implements WorkItemObserver, AutoCloseable {
     private static final String LOG_FILE = "activityLog.log";
     private static final Logger logger = Logger.getLogger(ActivityLoggerObserver.class.getName());
+    private static final Object CLOSE = new Object(); // Queued by close() after the last event
+    private static final int BATCH_SIZE = 256;
+
+    // When the background writer forces its writes to disk
+    public enum FsyncPolicy {
+        NEVER,    // Leave it to the OS, like the synchronous mode
+        ON_FLUSH, // After every flush of the write buffer
+        ON_CLOSE  // Once, when the logger is closed
+    }
+
+    private final Path logFile;
+    private final BlockingQueue<Object> queue; // Event lines, then CLOSE
+    private final long flushIntervalMillis;
+    private final FsyncPolicy fsyncPolicy;
+    private final Thread writer;
+    private final ByteBuffer buffer;
+    private FileChannel channel;
+    private boolean closed = false; // Guarded by this
+
+    public ActivityLoggerObserver() {
+        this.logFile = Paths.get(LOG_FILE);
+        this.queue = null;
+        this.flushIntervalMillis = 0;
+        this.fsyncPolicy = FsyncPolicy.NEVER;
+        this.writer = null;
+        this.buffer = null;
+    }
+
+    private ActivityLoggerObserver(Builder builder) {
+        this.logFile = builder.logFile;
+        this.flushIntervalMillis = builder.flushIntervalMillis;
+        this.fsyncPolicy = builder.fsyncPolicy;
+
+        if (builder.async) {
+            this.queue = new ArrayBlockingQueue<>(builder.capacity);
+            this.buffer = ByteBuffer.allocate(builder.bufferSize);
+            this.writer = new Thread(this::drain, "activity-log-writer");
+            this.writer.setDaemon(true);
+            this.writer.start();
+        } else {
+            this.queue = null;
+            this.buffer = null;
+            this.writer = null;
+        }
+    }
+
+    public static class Builder {
+        private Path logFile = Paths.get(LOG_FILE);
+        private boolean async = false;
+        private int capacity = 8192;
+        private int bufferSize = 1 << 16;
+        private long flushIntervalMillis = 200;
+        private FsyncPolicy fsyncPolicy = FsyncPolicy.NEVER;
+
+        public Builder setLogFile(Path logFile) { this.logFile = logFile; return this; }
+        public Builder setAsync(boolean async) { this.async = async; return this; }
+        public Builder setCapacity(int capacity) { this.capacity = capacity; return this; }
+        public Builder setBufferSize(int bufferSize) { this.bufferSize = bufferSize; return this; }
+        public Builder setFlushIntervalMillis(long flushIntervalMillis) { this.flushIntervalMillis = flushIntervalMillis; return this; }
+        public Builder setFsyncPolicy(FsyncPolicy fsyncPolicy) { this.fsyncPolicy = fsyncPolicy; return this; }
+
+        public ActivityLoggerObserver build() {
+            if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive");
+            if (bufferSize < 1) throw new IllegalArgumentException("Buffer size must be positive");
+            if (flushIntervalMillis < 1) throw new IllegalArgumentException("Flush interval must be positive");
+            if (fsyncPolicy == null) throw new IllegalArgumentException("Fsync policy is required");
+            return new ActivityLoggerObserver(this);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
 
     private void log(String message) {
-        try (FileWriter fw = new FileWriter(LOG_FILE, true)) {
-            fw.write(LocalDateTime.now() + " " + message + System.lineSeparator());
+        String line = LocalDateTime.now() + " " + message + System.lineSeparator();
+
+        if (queue != null && enqueue(line)) return;
+
+        try (FileWriter fw = new FileWriter(logFile.toFile(), true)) {
+            fw.write(line);
         } catch (IOException e) {
             logger.log(Level.WARNING, "Failed to log activity", e);
         }
     }
 
+    // Checked and queued under the lock close() takes, so no event can land behind the close marker,
+    // where the writer would never see it. Returns false once closed.
+    private synchronized boolean enqueue(String line) {
+        if (closed) return false;
+        try {
+            queue.put(line);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Write it directly instead
+            return false;
+        }
+    }
+
+    // Background writer: encodes queued events into the buffer and flushes it once it is full
+    // or the flush interval has passed, until the close marker is reached
+    private void drain() {
+        List<Object> batch = new ArrayList<>(BATCH_SIZE);
+        long nextFlush = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        boolean closing = false;
+
+        while (!closing) {
+            try {
+                Object first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH_SIZE - 1);
+                }
+            } catch (InterruptedException e) {
+                closing = true; // Nobody else interrupts this thread; treat it as a close
+            }
+
+            for (Object line : batch) {
+                if (line == CLOSE) {
+                    closing = true;
+                    break;
+                }
+                encode((String) line);
+            }
+            batch.clear();
+
+            if (closing || System.nanoTime() - nextFlush >= 0) {
+                flush();
+                nextFlush = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+            }
+        }
+
+        closeChannel();
+    }
+
+    private void encode(String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) flush();
+            int count = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, count);
+            offset += count;
+        }
+    }
+
+    private void flush() {
+        if (buffer.position() == 0) return;
+        buffer.flip();
+        try {
+            if (channel == null) {
+                channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsyncPolicy == FsyncPolicy.ON_FLUSH) channel.force(false);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to log activity", e);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) return;
+        try {
+            if (fsyncPolicy == FsyncPolicy.ON_CLOSE) channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to close activity log", e);
+        }
+        channel = null;
+    }
+
+    // Drains every queued event to the file and stops the writer. Later events are written directly.
+    // Synchronized so a shutdown hook and a normal exit closing at the same time both return after the drain,
+    // and so no event is queued after the marker.
+    @Override
+    public synchronized void close() {
+        if (writer == null || closed) return;
+        closed = true;
+        try {
+            queue.put(CLOSE);
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.log(Level.WARNING, "Interrupted while draining activity log");
+        }
+    }
+
     @Override
     public void onWorkItemAdded(WorkItem item) {
         log("Added: " + item.getClass().getSimpleName() + " ID=" + item.getID() + " Name=" + item.getName());
@@ -27,4 +225,27 @@ public class ActivityLoggerObserver implements WorkItemObserver {
     public void onWorkItemDeleted(WorkItem item) {
         log("Deleted: " + item.getClass().getSimpleName() + " ID=" + item.getID() + " Name=" + item.getName());
     }
-}
\ No newline at end of file
+
+    // One record per batch, with the ID range instead of a line per item
+    @Override
+    public void onWorkItemsAdded(Collection<? extends WorkItem> items) {
+        if (items.size() == 1) {
+            onWorkItemAdded(items.iterator().next());
+            return;
+        }
+
+        int minId = Integer.MAX_VALUE;
+        int maxId = Integer.MIN_VALUE;
+        for (WorkItem item : items) {
+            minId = Math.min(minId, item.getID());
+            maxId = Math.max(maxId, item.getID());
+        }
+        log("Added: " + items.size() + " work items IDs=" + minId + "-" + maxId);
+    }
+
+    @Override
+    public void onSubtreeDeleted(WorkItem root, int count) {
+        log("Deleted: " + root.getClass().getSimpleName() + " ID=" + root.getID() + " Name=" + root.getName()
+            + (count > 1 ? " with " + (count - 1) + " descendants" : ""));
+    }
+}
@@ -0,0 +1,89 @@
+package entities;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Decorator that hands notifications to another observer on its own executor,
+// so a slow observer does not hold up the thread creating or deleting work items.
+// The default executor has a single thread, which keeps the events in order.
+public class AsyncWorkItemObserver implements WorkItemObserver, AutoCloseable {
+    private static final Logger logger = Logger.getLogger(AsyncWorkItemObserver.class.getName());
+    private static final long CLOSE_TIMEOUT_SECONDS = 5;
+
+    private final WorkItemObserver delegate;
+    private final ExecutorService executor;
+
+    public AsyncWorkItemObserver(WorkItemObserver delegate) {
+        this(delegate, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "observer-" + delegate.getClass().getSimpleName());
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    public AsyncWorkItemObserver(WorkItemObserver delegate, ExecutorService executor) {
+        if (delegate == null) throw new IllegalArgumentException("Observer is required");
+        if (executor == null) throw new IllegalArgumentException("Executor is required");
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    public WorkItemObserver getDelegate() { return this.delegate; }
+
+    @Override
+    public void onWorkItemAdded(WorkItem item) {
+        dispatch(() -> delegate.onWorkItemAdded(item));
+    }
+
+    @Override
+    public void onWorkItemDeleted(WorkItem item) {
+        dispatch(() -> delegate.onWorkItemDeleted(item));
+    }
+
+    @Override
+    public void onWorkItemsAdded(Collection<? extends WorkItem> items) {
+        // Copied, the caller may reuse its collection once this returns
+        List<WorkItem> snapshot = new ArrayList<>(items);
+        dispatch(() -> delegate.onWorkItemsAdded(snapshot));
+    }
+
+    @Override
+    public void onSubtreeDeleted(WorkItem root, int count) {
+        dispatch(() -> delegate.onSubtreeDeleted(root, count));
+    }
+
+    private void dispatch(Runnable notification) {
+        try {
+            executor.execute(() -> {
+                try {
+                    notification.run();
+                } catch (RuntimeException e) {
+                    logger.log(Level.WARNING, "Observer " + delegate.getClass().getSimpleName() + " failed", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Executor already shut down, deliver on the caller's thread instead of losing the event
+            notification.run();
+        }
+    }
+
+    // Delivers the pending notifications and stops the executor. The delegate itself is not closed.
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.log(Level.WARNING, "Observer " + delegate.getClass().getSimpleName() + " did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
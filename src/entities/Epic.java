@@ -1,12 +1,11 @@
 package entities;
 
 import java.time.LocalDate;
-import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import enums.WorkItemStatus;
-import utils.ParseUtils;
+import utils.LineTokenizer;
 
 public class Epic extends WorkItem {
     private static final Logger logger = Logger.getLogger(Epic.class.getName());
@@ -16,21 +15,23 @@ public class Epic extends WorkItem {
     private LocalDate endDate;
 
     public String getDescription() { return this.description; }
-    public void setDescription(String description) { this.description = description; }
+    public void setDescription(String description) { this.description = description; markChanged(); }
 
     public LocalDate getStartDate() { return this.startDate; }
-    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; markChanged(); }
 
     public LocalDate getEndDate() { return this.endDate; }
-    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; markChanged(); }
 
     public static class Builder implements WorkItem.Builder<Epic> {
+        private int id;
         private String name;
         private WorkItemStatus status = WorkItemStatus.NOT_STARTED;
         private String description;
         private LocalDate startDate;
         private LocalDate endDate;
 
+        public Builder setID(int id) { this.id = id; return this; }
         public Builder setName(String name) { this.name = name; return this; }
         public Builder setStatus(WorkItemStatus status) { this.status = status; return this; }
         public Builder setDescription(String description) { this.description = description; return this; }
@@ -40,11 +41,12 @@ public class Epic extends WorkItem {
         @Override
         public Epic build() {
             Epic epic = new Epic();
-            epic.setName(name);
-            epic.setStatus(status);
-            epic.setDescription(description);
-            epic.setStartDate(startDate);
-            epic.setEndDate(endDate);
+            epic.id = id;
+            epic.name = name;
+            epic.status = status;
+            epic.description = description;
+            epic.startDate = startDate;
+            epic.endDate = endDate;
             return epic;
         }
     }
@@ -54,48 +56,52 @@ public class Epic extends WorkItem {
     }
 
     public static Epic parse(String line) {
+        return parse(new LineTokenizer().reset(line));
+    }
+
+    public static Epic parse(LineTokenizer tokens) {
         Epic epic = new Epic();
-        Map<String, String> map;
 
         try {
-            map = ParseUtils.parseKeyValuePairs(line);
-
-            if (map.containsKey("id")) epic.id = Integer.parseInt(map.get("id"));
-            if (map.containsKey("name")) epic.name = map.get("name");
-            if (map.containsKey("status")) epic.status = WorkItemStatus.valueOf(map.get("status").toUpperCase());
+            if (tokens.has("id")) epic.id = tokens.getInt("id");
+            if (tokens.has("name")) epic.name = tokens.get("name");
+            if (tokens.has("status")) epic.status = tokens.getEnum("status", STATUSES);
         } catch (Exception e) {
-            logger.log(Level.WARNING, "Failed to parse Epic from line: " + line, e);
+            logger.log(Level.WARNING, "Failed to parse Epic from line: " + tokens.getLine(), e);
             return null;
         }
 
-        if (map.containsKey("description")) {
-            try { epic.description = map.get("description"); } catch (Exception e) { epic.description = null; }
+        if (tokens.has("description")) {
+            try { epic.description = tokens.get("description"); } catch (Exception e) { epic.description = null; }
         }
-        if (map.containsKey("startdate")) {
-            try { epic.startDate = LocalDate.parse(map.get("startdate")); } catch (Exception e) { epic.startDate = null; }
+        if (tokens.has("startdate")) {
+            try { epic.startDate = tokens.getDate("startdate"); } catch (Exception e) { epic.startDate = null; }
         }
-        if (map.containsKey("enddate")) {
-            try { epic.endDate = LocalDate.parse(map.get("enddate")); } catch (Exception e) { epic.endDate = null; }
+        if (tokens.has("enddate")) {
+            try { epic.endDate = tokens.getDate("enddate"); } catch (Exception e) { epic.endDate = null; }
         }
 
         return epic;
     }
     
     @Override
-    public String serialize(Integer parentId) {
-        return 
-            "Type=Epic;ID=" + this.id + ";Name=" + this.name + ";Status=" + this.status + 
-            ";Description=" + (this.description != null ? this.description : "") + ";StartDate=" + (this.startDate != null ? this.startDate : "") + 
-            ";EndDate=" + (this.endDate != null ? this.endDate : "");
+    public void serialize(Integer parentId, StringBuilder out) {
+        out.append("Type=Epic;ID=").append(this.id).append(";Name=").append(this.name).append(";Status=").append(this.status)
+            .append(";Description=").append(this.description != null ? this.description : "")
+            .append(";StartDate=").append(this.startDate != null ? this.startDate : "")
+            .append(";EndDate=").append(this.endDate != null ? this.endDate : "");
     }
     
     @Override
-    public void print(Integer depth, boolean printDetails) {
-        System.out.println(getPrefixByDepth(depth, '-') + "[" + this.id + "] EPIC: " + this.name + " (" + this.status.getDisplayName() + ")");
+    public void print(Integer depth, boolean printDetails, StringBuilder out) {
+        out.append(getPrefixByDepth(depth, '-')).append('[').append(this.id).append("] EPIC: ").append(this.name)
+            .append(" (").append(this.status.getDisplayName()).append(')').append(NEWLINE);
         
         if (printDetails) {
-            System.out.println(getPrefixByDepth(depth, ' ') + "Start date: " + (this.startDate != null ? this.startDate : "--") + ", End date: " + (this.endDate != null ? this.endDate : "--"));
-            System.out.println(getPrefixByDepth(depth, ' ') + "Description: " + (this.description != null && this.description.length() > 0 ? this.description : "--"));
+            out.append(getPrefixByDepth(depth, ' ')).append("Start date: ").append(this.startDate != null ? this.startDate : "--")
+                .append(", End date: ").append(this.endDate != null ? this.endDate : "--").append(NEWLINE);
+            out.append(getPrefixByDepth(depth, ' ')).append("Description: ")
+                .append(this.description != null && this.description.length() > 0 ? this.description : "--").append(NEWLINE);
         }
     }
 }
@@ -1,11 +1,10 @@
 package entities;
 
-import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import enums.WorkItemStatus;
-import utils.ParseUtils;
+import utils.LineTokenizer;
 
 public class Feature extends WorkItem {
     private static final Logger logger = Logger.getLogger(Feature.class.getName());
@@ -14,17 +13,19 @@ public class Feature extends WorkItem {
     private Double estimatedHours;
 
     public String getDescription() { return this.description; }
-    public void setDescription(String description) { this.description = description; }
+    public void setDescription(String description) { this.description = description; markChanged(); }
 
     public Double getEstimatedHours() { return this.estimatedHours; }
-    public void setEstimatedHours(Double estimatedHours) { this.estimatedHours = estimatedHours; }
+    public void setEstimatedHours(Double estimatedHours) { this.estimatedHours = estimatedHours; markChanged(); }
 
     public static class Builder implements WorkItem.Builder<Feature> {
+        private int id;
         private String name;
         private WorkItemStatus status = WorkItemStatus.NOT_STARTED;
         private String description;
         private Double estimatedHours;
 
+        public Builder setID(int id) { this.id = id; return this; }
         public Builder setName(String name) { this.name = name; return this; }
         public Builder setStatus(WorkItemStatus status) { this.status = status; return this; }
         public Builder setDescription(String description) { this.description = description; return this; }
@@ -33,10 +34,11 @@ public class Feature extends WorkItem {
         @Override
         public Feature build() {
             Feature feature = new Feature();
-            feature.setName(name);
-            feature.setStatus(status);
-            feature.setDescription(description);
-            feature.setEstimatedHours(estimatedHours);
+            feature.id = id;
+            feature.name = name;
+            feature.status = status;
+            feature.description = description;
+            feature.estimatedHours = estimatedHours;
             return feature;
         }
     }
@@ -46,44 +48,49 @@ public class Feature extends WorkItem {
     }
 
     public static Feature parse(String line) {
+        return parse(new LineTokenizer().reset(line));
+    }
+
+    public static Feature parse(LineTokenizer tokens) {
         Feature feature = new Feature();
-        Map<String, String> map;
 
         try {
-            map = ParseUtils.parseKeyValuePairs(line);
-            if (map.containsKey("id")) feature.id = Integer.parseInt(map.get("id"));
-            if (map.containsKey("name")) feature.name = map.get("name");
-            if (map.containsKey("status")) feature.status = WorkItemStatus.valueOf(map.get("status").toUpperCase());
+            if (tokens.has("id")) feature.id = tokens.getInt("id");
+            if (tokens.has("name")) feature.name = tokens.get("name");
+            if (tokens.has("status")) feature.status = tokens.getEnum("status", STATUSES);
         } catch (Exception e) {
-            logger.log(Level.WARNING, "Failed to parse Feature from line: " + line, e);
+            logger.log(Level.WARNING, "Failed to parse Feature from line: " + tokens.getLine(), e);
             return null;
         }
 
-        if (map.containsKey("description")) {
-            try { feature.description = map.get("description"); } catch (Exception e) { feature.description = null; }
+        if (tokens.has("description")) {
+            try { feature.description = tokens.get("description"); } catch (Exception e) { feature.description = null; }
         }
-        if (map.containsKey("estimatedhours")) {
-            try { feature.estimatedHours = Double.parseDouble(map.get("estimatedhours")); } catch (Exception e) { feature.estimatedHours = null; }
+        if (tokens.has("estimatedhours")) {
+            try { feature.estimatedHours = tokens.getDouble("estimatedhours"); } catch (Exception e) { feature.estimatedHours = null; }
         }
 
         return feature;
     }
 
     @Override
-    public String serialize(Integer parentId) {
-        return 
-            "Type=Feature;ID=" + this.id + (parentId != null ? ";ParentID=" + parentId : "") + ";Name=" + this.name + ";Status=" + this.status + 
-            ";Description=" + (this.description != null ? this.description : "") + 
-            ";EstimatedHours=" + (this.estimatedHours != null ? this.estimatedHours : "");
+    public void serialize(Integer parentId, StringBuilder out) {
+        out.append("Type=Feature;ID=").append(this.id);
+        if (parentId != null) out.append(";ParentID=").append(parentId);
+        out.append(";Name=").append(this.name).append(";Status=").append(this.status)
+            .append(";Description=").append(this.description != null ? this.description : "")
+            .append(";EstimatedHours=").append(this.estimatedHours != null ? this.estimatedHours : "");
     }
 
     @Override
-    public void print(Integer depth, boolean printDetails) {
-        System.out.println(getPrefixByDepth(depth, '-') + "[" + this.id + "] FEATURE: " + this.name + " (" + this.status.getDisplayName() + ")");
-        
+    public void print(Integer depth, boolean printDetails, StringBuilder out) {
+        out.append(getPrefixByDepth(depth, '-')).append('[').append(this.id).append("] FEATURE: ").append(this.name)
+            .append(" (").append(this.status.getDisplayName()).append(')').append(NEWLINE);
+
         if (printDetails) {
-            System.out.println(getPrefixByDepth(depth, ' ') + "Estimated hours: " + (this.estimatedHours != null ? this.estimatedHours : "--"));
-            System.out.println(getPrefixByDepth(depth, ' ') + "Description: " + (this.description != null && this.description.length() > 0 ? this.description : "--"));
+            out.append(getPrefixByDepth(depth, ' ')).append("Estimated hours: ").append(this.estimatedHours != null ? this.estimatedHours : "--").append(NEWLINE);
+            out.append(getPrefixByDepth(depth, ' ')).append("Description: ")
+                .append(this.description != null && this.description.length() > 0 ? this.description : "--").append(NEWLINE);
         }
     }
 }
@@ -0,0 +1,255 @@
+package entities;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+
+import utils.IntHashSet;
+
+// Renders work item hierarchies the way the list command shows them, with the same output as printHierarchy.
+// Lines are collected in one large buffer that is handed to the output only when it fills up and on flush(),
+// instead of a println per line. The tree is walked with an explicit stack, so deep chains cannot overflow
+// the call stack. Children are already kept in ID order, see SortedChildList.
+//
+// A page size stops the walk as soon as that many items are rendered and remembers the next one, so a page
+// costs the same however large the workspace is. Below the max depth, subtrees are collapsed into a child count.
+public class HierarchyRenderer {
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final Appendable out;
+    private final int bufferSize;
+    private final int maxDepth;
+    private final int pageSize;
+    private final StringBuilder buffer;
+    private final IntHashSet path = new IntHashSet(); // IDs from the rendered root down to the current item
+
+    // Current path, one entry per level: the item, its children and the next child to render
+    private WorkItem[] items = new WorkItem[16];
+    private SortedChildList[] children = new SortedChildList[16];
+    private int[] next = new int[16];
+    private int top = -1;
+
+    private int rendered;
+    private WorkItem nextItem; // First item that did not fit on the page
+
+    public HierarchyRenderer(Appendable out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    public HierarchyRenderer(Appendable out, int bufferSize) {
+        this(builder().setOutput(out).setBufferSize(bufferSize));
+    }
+
+    private HierarchyRenderer(Builder builder) {
+        if (builder.bufferSize < 1) throw new IllegalArgumentException("Buffer size must be positive");
+        this.out = builder.out;
+        this.bufferSize = builder.bufferSize;
+        this.maxDepth = builder.maxDepth;
+        this.pageSize = builder.pageSize;
+        this.buffer = new StringBuilder(bufferSize + 1024);
+    }
+
+    public static class Builder {
+        private Appendable out;
+        private int bufferSize = DEFAULT_BUFFER_SIZE;
+        private int maxDepth = Integer.MAX_VALUE;
+        private int pageSize = Integer.MAX_VALUE;
+
+        public Builder setOutput(Appendable out) { this.out = out; return this; }
+        public Builder setBufferSize(int bufferSize) { this.bufferSize = bufferSize; return this; }
+        // Items deeper than this are not rendered, their parent shows how many children it has instead
+        public Builder setMaxDepth(int maxDepth) { this.maxDepth = maxDepth; return this; }
+        // Number of items rendered before the walk stops
+        public Builder setPageSize(int pageSize) { this.pageSize = pageSize; return this; }
+
+        public HierarchyRenderer build() {
+            if (out == null) throw new IllegalArgumentException("Output is required");
+            if (bufferSize < 1) throw new IllegalArgumentException("Buffer size must be positive");
+            if (maxDepth < 0) throw new IllegalArgumentException("Max depth cannot be negative");
+            if (pageSize < 1) throw new IllegalArgumentException("Page size must be positive");
+            return new HierarchyRenderer(this);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // Number of items rendered so far
+    public int getRendered() { return this.rendered; }
+
+    // Item the next page starts at, or null if the page was not filled
+    public WorkItem getNextItem() { return this.nextItem; }
+
+    public boolean isPageFull() { return this.nextItem != null; }
+
+    // Renders root and all its descendants, root at the given depth.
+    // Returns false if the page filled up before the whole subtree was rendered.
+    public boolean render(WorkItem root, int depth, boolean printDetails) {
+        if (isPageFull()) return false;
+        if (enter(root, depth, printDetails)) {
+            walk(depth, printDetails);
+        }
+        return !isPageFull();
+    }
+
+    // Renders the roots and their subtrees in order, starting at the item from (anywhere in one of the
+    // roots' subtrees) or at the first root if from is null. Items before from are skipped without being visited.
+    // An item below the max depth is collapsed into its ancestor at the max depth, so the page starts there.
+    // Returns the item the next page starts at, or null if everything after from was rendered.
+    public WorkItem renderPage(List<? extends WorkItem> roots, WorkItem from, boolean printDetails) {
+        int first = 0;
+        if (from != null) {
+            WorkItem root = from;
+            int depth = 0;
+            while (root.getParent() != null) {
+                root = root.getParent();
+                depth++;
+            }
+            for (; depth > maxDepth; depth--) {
+                from = from.getParent();
+            }
+            first = indexOf(roots, root);
+            if (first < 0) throw new IllegalArgumentException("Work item " + from.getID() + " is not in the listed hierarchies");
+
+            // The walk goes on with from's subtree, then its later siblings and those of its ancestors
+            resumeAt(from, depth);
+            enter(from, depth, printDetails);
+            walk(0, printDetails);
+            first++;
+        }
+
+        for (int i = first; i < roots.size() && render(roots.get(i), 0, printDetails); i++) {
+            // Rendering happens in the condition
+        }
+        return this.nextItem;
+    }
+
+    // Puts the ancestors of item on the path as if the walk had just reached it, without rendering them
+    private void resumeAt(WorkItem item, int depth) {
+        WorkItem[] ancestors = new WorkItem[depth];
+        WorkItem current = item;
+        for (int level = depth - 1; level >= 0; level--) {
+            current = current.getParent();
+            ancestors[level] = current;
+        }
+
+        for (int level = 0; level < depth; level++) {
+            WorkItem ancestor = ancestors[level];
+            WorkItem child = level + 1 < depth ? ancestors[level + 1] : item;
+            path.add(ancestor.getID());
+            push(ancestor);
+            next[top] = children[top].indexOf(child) + 1;
+        }
+    }
+
+    private void walk(int depth, boolean printDetails) {
+        while (top >= 0 && !isPageFull()) {
+            SortedChildList siblings = children[top];
+            if (next[top] < siblings.size()) {
+                WorkItem child = siblings.get(next[top]++);
+                enter(child, depth + top + 1, printDetails);
+            } else {
+                pop();
+            }
+        }
+
+        // A full page leaves the rest of the path unvisited
+        while (top >= 0) {
+            pop();
+        }
+    }
+
+    // Prints the item and makes it the deepest level of the path, unless it is already on the path,
+    // the page is full or its children are below the max depth
+    private boolean enter(WorkItem item, int depth, boolean printDetails) {
+        if (rendered == pageSize) {
+            nextItem = item;
+            return false;
+        }
+
+        if (!path.add(item.getID())) {
+            buffer.append(item.getPrefixByDepth(depth + 1, '-')).append("[Cycle detected: ID ").append(item.getID())
+                .append(']').append(WorkItem.NEWLINE);
+            drainIfFull();
+            return false;
+        }
+
+        item.print(depth, printDetails, buffer);
+        if (printDetails) {
+            buffer.append(WorkItem.NEWLINE); // Empty line
+        }
+        rendered++;
+
+        if (depth >= maxDepth) {
+            int count = item.children.size();
+            if (count > 0) {
+                buffer.append(item.getPrefixByDepth(depth + 1, '-')).append('(').append(count)
+                    .append(count == 1 ? " child" : " children").append(" collapsed)").append(WorkItem.NEWLINE);
+            }
+            path.remove(item.getID());
+            drainIfFull();
+            return false;
+        }
+        drainIfFull();
+
+        push(item);
+        return true;
+    }
+
+    private void push(WorkItem item) {
+        if (++top == items.length) {
+            int capacity = items.length * 2;
+            items = Arrays.copyOf(items, capacity);
+            children = Arrays.copyOf(children, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        items[top] = item;
+        children[top] = item.children;
+        next[top] = 0;
+    }
+
+    private void pop() {
+        path.remove(items[top].getID());
+        items[top] = null;
+        children[top] = null;
+        top--;
+    }
+
+    // Position by identity, work items do not override equals
+    private static int indexOf(List<?> items, WorkItem item) {
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i) == item) return i;
+        }
+        return -1;
+    }
+
+    private void drainIfFull() {
+        if (buffer.length() >= bufferSize) {
+            drain();
+        }
+    }
+
+    private void drain() {
+        try {
+            out.append(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.setLength(0);
+    }
+
+    // Writes out everything rendered so far
+    public void flush() {
+        drain();
+        if (out instanceof Flushable) {
+            try {
+                ((Flushable) out).flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
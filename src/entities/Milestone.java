@@ -1,12 +1,11 @@
 package entities;
 
 import java.time.LocalDate;
-import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import enums.WorkItemStatus;
-import utils.ParseUtils;
+import utils.LineTokenizer;
 
 public class Milestone extends WorkItem {
     private static final Logger logger = Logger.getLogger(Milestone.class.getName());
@@ -14,13 +13,15 @@ public class Milestone extends WorkItem {
     private LocalDate dueDate;
 
     public LocalDate getDueDate() { return this.dueDate; }
-    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
+    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; markChanged(); }
 
     public static class Builder implements WorkItem.Builder<Milestone> {
+        private int id;
         private String name;
         private WorkItemStatus status = WorkItemStatus.NOT_STARTED;
         private LocalDate dueDate;
 
+        public Builder setID(int id) { this.id = id; return this; }
         public Builder setName(String name) { this.name = name; return this; }
         public Builder setStatus(WorkItemStatus status) { this.status = status; return this; }
         public Builder setDueDate(LocalDate dueDate) { this.dueDate = dueDate; return this; }
@@ -28,9 +29,10 @@ public class Milestone extends WorkItem {
         @Override
         public Milestone build() {
             Milestone milestone = new Milestone();
-            milestone.setName(name);
-            milestone.setStatus(status);
-            milestone.setDueDate(dueDate);
+            milestone.id = id;
+            milestone.name = name;
+            milestone.status = status;
+            milestone.dueDate = dueDate;
             return milestone;
         }
     }
@@ -40,39 +42,43 @@ public class Milestone extends WorkItem {
     }
 
     public static Milestone parse(String line) {
+        return parse(new LineTokenizer().reset(line));
+    }
+
+    public static Milestone parse(LineTokenizer tokens) {
         Milestone milestone = new Milestone();
-        Map<String, String> map;
 
         try {
-            map = ParseUtils.parseKeyValuePairs(line);
-            if (map.containsKey("id")) milestone.id = Integer.parseInt(map.get("id"));
-            if (map.containsKey("name")) milestone.name = map.get("name");
-            if (map.containsKey("status")) milestone.status = WorkItemStatus.valueOf(map.get("status").toUpperCase());
+            if (tokens.has("id")) milestone.id = tokens.getInt("id");
+            if (tokens.has("name")) milestone.name = tokens.get("name");
+            if (tokens.has("status")) milestone.status = tokens.getEnum("status", STATUSES);
         } catch (Exception e) {
-            logger.log(Level.WARNING, "Failed to parse Milestone from line: " + line, e);
+            logger.log(Level.WARNING, "Failed to parse Milestone from line: " + tokens.getLine(), e);
             return null;
         }
         
-        if (map.containsKey("duedate")) {
-            try { milestone.dueDate = LocalDate.parse(map.get("duedate")); } catch (Exception e) { milestone.dueDate = null; }
+        if (tokens.has("duedate")) {
+            try { milestone.dueDate = tokens.getDate("duedate"); } catch (Exception e) { milestone.dueDate = null; }
         }
 
         return milestone;
     }
     
     @Override
-    public String serialize(Integer parentId) {
-        return 
-            "Type=Milestone;ID=" + this.id + (parentId != null ? ";ParentID=" + parentId : "") + ";Name=" + this.name + ";Status=" + this.status + 
-            ";DueDate=" + (this.dueDate != null ? this.dueDate : "");
+    public void serialize(Integer parentId, StringBuilder out) {
+        out.append("Type=Milestone;ID=").append(this.id);
+        if (parentId != null) out.append(";ParentID=").append(parentId);
+        out.append(";Name=").append(this.name).append(";Status=").append(this.status)
+            .append(";DueDate=").append(this.dueDate != null ? this.dueDate : "");
     }
     
     @Override
-    public void print(Integer depth, boolean printDetails) {
-        System.out.println(getPrefixByDepth(depth, '-') + "[" + this.id + "] MILESTONE: " + this.name + " (" + this.status.getDisplayName() + ")");
+    public void print(Integer depth, boolean printDetails, StringBuilder out) {
+        out.append(getPrefixByDepth(depth, '-')).append('[').append(this.id).append("] MILESTONE: ").append(this.name)
+            .append(" (").append(this.status.getDisplayName()).append(')').append(NEWLINE);
 
         if (printDetails) {
-            System.out.println(getPrefixByDepth(depth, ' ') + "Due date: " + (this.dueDate != null ? this.dueDate : "--"));
+            out.append(getPrefixByDepth(depth, ' ')).append("Due date: ").append(this.dueDate != null ? this.dueDate : "--").append(NEWLINE);
         }
     }
 }
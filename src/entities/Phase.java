@@ -1,37 +1,39 @@
 package entities;
 
 import java.time.LocalDate;
-import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import enums.PhaseType;
 import enums.WorkItemStatus;
-import utils.ParseUtils;
+import utils.LineTokenizer;
 
 public class Phase extends WorkItem {
     private static final Logger logger = Logger.getLogger(Phase.class.getName());
+    private static final PhaseType[] PHASE_TYPES = PhaseType.values();
 
     private PhaseType phaseType;
     private LocalDate startDate;
     private LocalDate endDate;
     
     public PhaseType getPhaseType() { return phaseType; }
-    public void setPhaseType(PhaseType phaseType) { this.phaseType = phaseType; }
+    public void setPhaseType(PhaseType phaseType) { this.phaseType = phaseType; markChanged(); }
 
     public LocalDate getStartDate() { return startDate; }
-    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; markChanged(); }
 
     public LocalDate getEndDate() { return endDate; }
-    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; markChanged(); }
 
     public static class Builder implements WorkItem.Builder<Phase> {
+        private int id;
         private String name;
         private WorkItemStatus status = WorkItemStatus.NOT_STARTED;
         private PhaseType phaseType;
         private LocalDate startDate;
         private LocalDate endDate;
 
+        public Builder setID(int id) { this.id = id; return this; }
         public Builder setName(String name) { this.name = name; return this; }
         public Builder setStatus(WorkItemStatus status) { this.status = status; return this; }
         public Builder setPhaseType(PhaseType phaseType) { this.phaseType = phaseType; return this; }
@@ -41,11 +43,12 @@ public class Phase extends WorkItem {
         @Override
         public Phase build() {
             Phase phase = new Phase();
-            phase.setName(name);
-            phase.setStatus(status);
-            phase.setPhaseType(phaseType);
-            phase.setStartDate(startDate);
-            phase.setEndDate(endDate);
+            phase.id = id;
+            phase.name = name;
+            phase.status = status;
+            phase.phaseType = phaseType;
+            phase.startDate = startDate;
+            phase.endDate = endDate;
             return phase;
         }
     }
@@ -55,47 +58,54 @@ public class Phase extends WorkItem {
     }
 
     public static Phase parse(String line) {
+        return parse(new LineTokenizer().reset(line));
+    }
+
+    public static Phase parse(LineTokenizer tokens) {
         Phase phase = new Phase();
-        Map<String, String> map;
 
         try {
-            map = ParseUtils.parseKeyValuePairs(line);
-            if (map.containsKey("id")) phase.id = Integer.parseInt(map.get("id"));
-            if (map.containsKey("name")) phase.name = map.get("name");
-            if (map.containsKey("status")) phase.status = WorkItemStatus.valueOf(map.get("status").toUpperCase());
+            if (tokens.has("id")) phase.id = tokens.getInt("id");
+            if (tokens.has("name")) phase.name = tokens.get("name");
+            if (tokens.has("status")) phase.status = tokens.getEnum("status", STATUSES);
         } catch (Exception e) {
-            logger.log(Level.WARNING, "Failed to parse Phase from line: " + line, e);
+            logger.log(Level.WARNING, "Failed to parse Phase from line: " + tokens.getLine(), e);
             return null;
         }
 
-        if (map.containsKey("phasetype")) {
-            try { phase.phaseType = PhaseType.valueOf(map.get("phasetype").toUpperCase()); } catch (Exception e) { phase.phaseType = null; }
+        if (tokens.has("phasetype")) {
+            try { phase.phaseType = tokens.getEnum("phasetype", PHASE_TYPES); } catch (Exception e) { phase.phaseType = null; }
         }
-        if (map.containsKey("startdate")) {
-            try { phase.startDate = LocalDate.parse(map.get("startdate")); } catch (Exception e) { phase.startDate = null; }
+        if (tokens.has("startdate")) {
+            try { phase.startDate = tokens.getDate("startdate"); } catch (Exception e) { phase.startDate = null; }
         }
-        if (map.containsKey("enddate")) {
-            try { phase.endDate = LocalDate.parse(map.get("enddate")); } catch (Exception e) { phase.endDate = null; }
+        if (tokens.has("enddate")) {
+            try { phase.endDate = tokens.getDate("enddate"); } catch (Exception e) { phase.endDate = null; }
         }
 
         return phase;
     }
     
     @Override
-    public String serialize(Integer parentId) {
-        return 
-            "Type=Phase;ID=" + this.id + (parentId != null ? ";ParentID=" + parentId : "") + ";Name=" + this.name + ";Status=" + this.status + 
-            ";PhaseType=" + this.phaseType + ";StartDate=" + (this.startDate != null ? this.startDate : "") + 
-            ";EndDate=" + (this.endDate != null ? this.endDate : "");
+    public void serialize(Integer parentId, StringBuilder out) {
+        out.append("Type=Phase;ID=").append(this.id);
+        if (parentId != null) out.append(";ParentID=").append(parentId);
+        out.append(";Name=").append(this.name).append(";Status=").append(this.status)
+            .append(";PhaseType=").append(this.phaseType)
+            .append(";StartDate=").append(this.startDate != null ? this.startDate : "")
+            .append(";EndDate=").append(this.endDate != null ? this.endDate : "");
     }
 
     @Override
-    public void print(Integer depth, boolean printDetails) {
-        System.out.println(getPrefixByDepth(depth, '-') + "[" + this.id + "] PHASE (" + this.phaseType.getDisplayName() + "): " + this.name + " (" + this.status.getDisplayName() + ")");
+    public void print(Integer depth, boolean printDetails, StringBuilder out) {
+        out.append(getPrefixByDepth(depth, '-')).append('[').append(this.id).append("] PHASE (").append(this.phaseType.getDisplayName())
+            .append("): ").append(this.name).append(" (").append(this.status.getDisplayName()).append(')').append(NEWLINE);
 
         if (printDetails) {
-            System.out.println(getPrefixByDepth(depth, ' ') + "Start date: " + (this.startDate != null ? this.startDate : "--") + ", End date: " + (this.endDate != null ? this.endDate : "--"));
-            System.out.println(getPrefixByDepth(depth, ' ') + "Phase Type: " + (this.phaseType != null ? this.phaseType.getDisplayName() : "--"));
+            out.append(getPrefixByDepth(depth, ' ')).append("Start date: ").append(this.startDate != null ? this.startDate : "--")
+                .append(", End date: ").append(this.endDate != null ? this.endDate : "--").append(NEWLINE);
+            out.append(getPrefixByDepth(depth, ' ')).append("Phase Type: ")
+                .append(this.phaseType != null ? this.phaseType.getDisplayName() : "--").append(NEWLINE);
         }
     }
 }
@@ -0,0 +1,117 @@
+package entities;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+// Children of a work item, always in ID order. Items are inserted at their place by binary search,
+// so renders, saves and traversals read them in order without sorting. New items get the highest ID
+// so far, which makes the usual insert an append. Items with the same ID keep their insertion order.
+// Positions are given by the IDs, so add(int, item) and set are not supported.
+public class SortedChildList extends AbstractList<WorkItem> implements RandomAccess {
+    private static final WorkItem[] EMPTY = new WorkItem[0];
+
+    private WorkItem[] items = EMPTY;
+    private int size;
+
+    @Override
+    public WorkItem get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        return items[index];
+    }
+
+    @Override
+    public int size() { return this.size; }
+
+    @Override
+    public boolean add(WorkItem item) {
+        if (item == null) throw new NullPointerException("Child cannot be null");
+        int index = insertionPoint(item.getID());
+        if (size == items.length) {
+            items = Arrays.copyOf(items, Math.max(4, size + (size >> 1)));
+        }
+        System.arraycopy(items, index, items, index + 1, size - index);
+        items[index] = item;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public WorkItem remove(int index) {
+        WorkItem removed = get(index);
+        System.arraycopy(items, index + 1, items, index, size - index - 1);
+        items[--size] = null;
+        modCount++;
+        return removed;
+    }
+
+    // Removes this exact item, found by binary search on its ID
+    @Override
+    public boolean remove(Object o) {
+        int index = indexOf(o);
+        if (index < 0) return false;
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof WorkItem)) return -1;
+        WorkItem item = (WorkItem) o;
+        int id = item.getID();
+        // Work items do not override equals, so the match is by identity among the items with that ID
+        for (int i = firstIndexOf(id); i < size && items[i].getID() == id; i++) {
+            if (items[i] == item) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(items, 0, size, null);
+        size = 0;
+        modCount++;
+    }
+
+    // Child with the given ID, or null
+    public WorkItem findById(int id) {
+        int index = firstIndexOf(id);
+        return index < size && items[index].getID() == id ? items[index] : null;
+    }
+
+    // First position whose ID is not lower than id
+    private int firstIndexOf(int id) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (items[mid].getID() < id) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    // Position after every item whose ID is not higher than id
+    private int insertionPoint(int id) {
+        if (size == 0 || items[size - 1].getID() <= id) return size; // Usual case, the newest item
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (items[mid].getID() <= id) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+}
@@ -1,12 +1,11 @@
 package entities;
 
 import java.time.LocalDate;
-import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import enums.WorkItemStatus;
-import utils.ParseUtils;
+import utils.LineTokenizer;
 
 public class Task extends WorkItem {
     private static final Logger logger = Logger.getLogger(Task.class.getName());
@@ -16,13 +15,13 @@ public class Task extends WorkItem {
     private Double estimatedHours;
 
     public String getDescription() { return this.description; }
-    public void setDescription(String description) { this.description = description; }
+    public void setDescription(String description) { this.description = description; markChanged(); }
 
     public LocalDate getDueDate() { return this.dueDate; }
-    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
+    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; markChanged(); }
 
     public Double getEstimatedHours() { return this.estimatedHours; }
-    public void setEstimatedHours(Double estimatedHours) { this.estimatedHours = estimatedHours; }
+    public void setEstimatedHours(Double estimatedHours) { this.estimatedHours = estimatedHours; markChanged(); }
     
     @Override
     public void addChild(WorkItem child) {
@@ -30,12 +29,14 @@ public class Task extends WorkItem {
     }
 
     public static class Builder implements WorkItem.Builder<Task> {
+        private int id;
         private String name;
         private WorkItemStatus status = WorkItemStatus.NOT_STARTED;
         private String description;
         private LocalDate dueDate;
         private Double estimatedHours;
 
+        public Builder setID(int id) { this.id = id; return this; }
         public Builder setName(String name) { this.name = name; return this; }
         public Builder setStatus(WorkItemStatus status) { this.status = status; return this; }
         public Builder setDescription(String description) { this.description = description; return this; }
@@ -45,11 +46,12 @@ public class Task extends WorkItem {
         @Override
         public Task build() {
             Task task = new Task();
-            task.setName(name);
-            task.setStatus(status);
-            task.setDescription(description);
-            task.setDueDate(dueDate);
-            task.setEstimatedHours(estimatedHours);
+            task.id = id;
+            task.name = name;
+            task.status = status;
+            task.description = description;
+            task.dueDate = dueDate;
+            task.estimatedHours = estimatedHours;
             return task;
         }
     }
@@ -59,47 +61,54 @@ public class Task extends WorkItem {
     }
 
     public static Task parse(String line) {
+        return parse(new LineTokenizer().reset(line));
+    }
+
+    public static Task parse(LineTokenizer tokens) {
         Task task = new Task();
-        Map<String, String> map;
 
         try {
-            map = ParseUtils.parseKeyValuePairs(line);
-            if (map.containsKey("id")) task.id = Integer.parseInt(map.get("id"));
-            if (map.containsKey("name")) task.name = map.get("name");
-            if (map.containsKey("status")) task.status = WorkItemStatus.valueOf(map.get("status").toUpperCase());
+            if (tokens.has("id")) task.id = tokens.getInt("id");
+            if (tokens.has("name")) task.name = tokens.get("name");
+            if (tokens.has("status")) task.status = tokens.getEnum("status", STATUSES);
         } catch (Exception e) {
-            logger.log(Level.WARNING, "Failed to parse Task from line: " + line, e);
+            logger.log(Level.WARNING, "Failed to parse Task from line: " + tokens.getLine(), e);
             return null;
         }
 
-        if (map.containsKey("description")) {
-            try { task.description = map.get("description"); } catch (Exception e) { task.description = null; }
+        if (tokens.has("description")) {
+            try { task.description = tokens.get("description"); } catch (Exception e) { task.description = null; }
         }
-        if (map.containsKey("duedate")) {
-            try { task.dueDate = LocalDate.parse(map.get("duedate")); } catch (Exception e) { task.dueDate = null; }
+        if (tokens.has("duedate")) {
+            try { task.dueDate = tokens.getDate("duedate"); } catch (Exception e) { task.dueDate = null; }
         }
-        if (map.containsKey("estimatedhours")) {
-            try { task.estimatedHours = Double.parseDouble(map.get("estimatedhours")); } catch (Exception e) { task.estimatedHours = null; }
+        if (tokens.has("estimatedhours")) {
+            try { task.estimatedHours = tokens.getDouble("estimatedhours"); } catch (Exception e) { task.estimatedHours = null; }
         }
 
         return task;
     }
 
     @Override
-    public String serialize(Integer parentId) {
-        return 
-            "Type=Task;ID=" + this.id + (parentId != null ? ";ParentID=" + parentId : "") + ";Name=" + this.name + ";Status=" + this.status + 
-            ";Description=" + (this.description != null ? this.description : "") + ";DueDate=" + (this.dueDate != null ? this.dueDate : "") + 
-            ";EstimatedHours=" + (this.estimatedHours != null ? this.estimatedHours : "");
+    public void serialize(Integer parentId, StringBuilder out) {
+        out.append("Type=Task;ID=").append(this.id);
+        if (parentId != null) out.append(";ParentID=").append(parentId);
+        out.append(";Name=").append(this.name).append(";Status=").append(this.status)
+            .append(";Description=").append(this.description != null ? this.description : "")
+            .append(";DueDate=").append(this.dueDate != null ? this.dueDate : "")
+            .append(";EstimatedHours=").append(this.estimatedHours != null ? this.estimatedHours : "");
     }
     
     @Override
-    public void print(Integer depth, boolean printDetails) {
-        System.out.println(getPrefixByDepth(depth, '-') + "[" + this.id + "] TASK: " + this.name + " (" + this.status.getDisplayName() + ")");
+    public void print(Integer depth, boolean printDetails, StringBuilder out) {
+        out.append(getPrefixByDepth(depth, '-')).append('[').append(this.id).append("] TASK: ").append(this.name)
+            .append(" (").append(this.status.getDisplayName()).append(')').append(NEWLINE);
 
         if (printDetails) {
-            System.out.println(getPrefixByDepth(depth, ' ') + "Due date: " + (this.dueDate != null ? this.dueDate : "--") + ", Estimated hours: " + (this.estimatedHours != null ? this.estimatedHours : "--"));
-            System.out.println(getPrefixByDepth(depth, ' ') + "Description: " + (this.description != null && this.description.length() > 0 ? this.description : "--"));
+            out.append(getPrefixByDepth(depth, ' ')).append("Due date: ").append(this.dueDate != null ? this.dueDate : "--")
+                .append(", Estimated hours: ").append(this.estimatedHours != null ? this.estimatedHours : "--").append(NEWLINE);
+            out.append(getPrefixByDepth(depth, ' ')).append("Description: ")
+                .append(this.description != null && this.description.length() > 0 ? this.description : "--").append(NEWLINE);
         }
     }
 }
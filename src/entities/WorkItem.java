@@ -1,24 +1,41 @@
 package entities;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
-import java.util.Stack;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import enums.WorkItemStatus;
+import enums.WorkItemType;
+import utils.LineTokenizer;
 
 public abstract class WorkItem implements Iterable<WorkItem> {
     private static final Logger logger = Logger.getLogger(WorkItem.class.getName());
+    private static final WorkItemType[] TYPES = WorkItemType.values();
+    protected static final WorkItemStatus[] STATUSES = WorkItemStatus.values();
+    static final String NEWLINE = System.lineSeparator();
 
-    protected Integer id;
+    // Indentation by depth for the two prefix characters, built once instead of on every printed line
+    private static final int CACHED_PREFIXES = 32;
+    private static final String[] DASH_PREFIXES = buildPrefixes('-');
+    private static final String[] SPACE_PREFIXES = buildPrefixes(' ');
+
+    protected int id;
     protected String name;
     protected WorkItemStatus status;
-    protected final List<WorkItem> children = new ArrayList<>();
+    protected final SortedChildList children = new SortedChildList(); // Always in ID order
+    private WorkItem parent;
+    WorkItemIndex index; // Set while the item belongs to an indexed workspace
+    private volatile long version; // Value of the version clock at the last change
+
+    // Shared by all items, so versions order every change in the workspace
+    private static final AtomicLong versionClock = new AtomicLong();
 
     public WorkItem() {
         this.id = 0;
@@ -26,39 +43,126 @@ public abstract class WorkItem implements Iterable<WorkItem> {
     }
 
     // ==== Abstract methods to implement in subclasses ====
-    public abstract String serialize(Integer parentId);
+    // Appends the data.txt line for this item (without line separator) to the caller's buffer
+    public abstract void serialize(Integer parentId, StringBuilder out);
     // public abstract void parse(String line);
 
-    public abstract void print(Integer depth, boolean printDetails);
+    // Appends the lines shown by the list command for this item to the caller's buffer
+    public abstract void print(Integer depth, boolean printDetails, StringBuilder out);
     // =====================================================
 
-    public Integer getID() { return this.id; }
-    public void setID(Integer id) { this.id = id; }
+    public String serialize(Integer parentId) {
+        StringBuilder out = new StringBuilder(128);
+        serialize(parentId, out);
+        return out.toString();
+    }
+
+    public void print(Integer depth, boolean printDetails) {
+        StringBuilder out = new StringBuilder(128);
+        print(depth, printDetails, out);
+        System.out.print(out);
+    }
+
+    public int getID() { return this.id; }
+    public void setID(int id) {
+        // The parent keeps its children ordered by ID
+        int oldId = this.id;
+        if (parent != null) parent.children.remove(this);
+        this.id = id;
+        if (parent != null) parent.children.add(this);
+        if (index != null && oldId != id) index.idChanged(this, oldId);
+        markChanged();
+    }
 
     public String getName() { return this.name; }
-    public void setName(String name) { this.name = name; }
+    public void setName(String name) { this.name = name; markChanged(); }
 
     public WorkItemStatus getStatus() { return this.status; }
-    public void setStatus(WorkItemStatus status) { this.status = status; }
+    public void setStatus(WorkItemStatus status) { this.status = status; markChanged(); }
+
+    public SortedChildList getChildren() { return this.children; }
+
+    public WorkItem getParent() { return this.parent; }
 
-    public List<WorkItem> getChildren() { return this.children; }
+    public long getVersion() { return this.version; }
+
+    // Latest version handed out to any item
+    public static long currentVersion() { return versionClock.get(); }
+
+    // Called by every setter: bumps the version and marks the item dirty for the next sync
+    protected void markChanged() {
+        touch();
+        if (index != null) index.markDirty(this);
+    }
+
+    void touch() {
+        version = nextVersion();
+    }
+
+    static long nextVersion() {
+        return versionClock.incrementAndGet();
+    }
 
     public void addChild(WorkItem child) {
         children.add(child);
+        child.parent = this;
+        // The child's ParentID changed
+        child.touch();
+        if (index != null) index.register(child);
+    }
+
+    public boolean removeChild(WorkItem child) {
+        if (!children.remove(child)) return false;
+        child.parent = null;
+        if (index != null) index.unregister(child);
+        return true;
     }
 
+    // build() assigns the fields directly: the new item is in no workspace yet, so there is no change to record
     public interface Builder<T extends WorkItem> {
         T build();
     }
 
-    private static final List<WorkItemObserver> observers = new ArrayList<>();
+    // Copy-on-write registry: notifications iterate a snapshot array without locking,
+    // registration replaces the array under the lock
+    private static final Object observerLock = new Object();
+    private static volatile WorkItemObserver[] observers = new WorkItemObserver[0];
 
     public static void addObserver(WorkItemObserver observer) {
-        observers.add(observer);
+        if (observer == null) return;
+        synchronized (observerLock) {
+            WorkItemObserver[] updated = Arrays.copyOf(observers, observers.length + 1);
+            updated[observers.length] = observer;
+            observers = updated;
+        }
     }
 
+    // Also removes an AsyncWorkItemObserver registered for the given observer. That wrapper is closed, so its
+    // pending notifications are delivered before this returns and none arrive afterwards.
     public static void removeObserver(WorkItemObserver observer) {
-        observers.remove(observer);
+        WorkItemObserver removed = null;
+        synchronized (observerLock) {
+            WorkItemObserver[] current = observers;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i].equals(observer) || isAsyncFor(current[i], observer)) {
+                    removed = current[i];
+                    WorkItemObserver[] updated = new WorkItemObserver[current.length - 1];
+                    System.arraycopy(current, 0, updated, 0, i);
+                    System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                    observers = updated;
+                    break;
+                }
+            }
+        }
+
+        // Outside the lock: the delegate may still be busy and could register observers itself
+        if (removed != observer && removed instanceof AsyncWorkItemObserver) {
+            ((AsyncWorkItemObserver) removed).close();
+        }
+    }
+
+    private static boolean isAsyncFor(WorkItemObserver registered, WorkItemObserver observer) {
+        return registered instanceof AsyncWorkItemObserver && ((AsyncWorkItemObserver) registered).getDelegate().equals(observer);
     }
 
     public static void notifyWorkItemAdded(WorkItem item) {
@@ -73,16 +177,31 @@ public abstract class WorkItem implements Iterable<WorkItem> {
         }
     }
 
+    public static void notifyWorkItemsAdded(Collection<? extends WorkItem> items) {
+        if (items.isEmpty()) return;
+        for (WorkItemObserver observer : observers) {
+            observer.onWorkItemsAdded(items);
+        }
+    }
+
+    public static void notifySubtreeDeleted(WorkItem root, int count) {
+        for (WorkItemObserver observer : observers) {
+            observer.onSubtreeDeleted(root, count);
+        }
+    }
+
+    // Adding child under parent closes a cycle if child is parent itself or one of its ancestors.
+    // Walking up the parent links costs the depth of parent, instead of a walk over child's whole subtree.
     public static boolean wouldCreateCycle(WorkItem parent, WorkItem child) {
         if (parent == null || child == null) return false;
-        for (WorkItem descendant : child) {
-            if (descendant.equals(parent)) return true;
+        for (WorkItem ancestor = parent; ancestor != null; ancestor = ancestor.parent) {
+            if (ancestor == child) return true;
         }
         return false;
     }
 
-    public static Integer getNextID(List<? extends WorkItem> items) {
-        return getNextIDInternal(items, new HashSet<>()) + 1;
+    public static int getNextID(List<? extends WorkItem> items) {
+        return getMaxId(items) + 1;
     }
 
     @Override
@@ -90,37 +209,94 @@ public abstract class WorkItem implements Iterable<WorkItem> {
         return new WorkItemIterator(this);
     }
 
-    // Depth-first iterator for WorkItem hierarchy
+    // Calls action for this item and all its descendants, depth-first, like the iterator
+    public void forEachDescendant(Consumer<? super WorkItem> action) {
+        for (WorkItem wi = this; wi != null; wi = wi.nextInPreorder(this)) {
+            action.accept(wi);
+        }
+    }
+
+    // Same walk, stopped as soon as action returns false. Returns false if the walk was stopped.
+    public boolean forEachDescendantWhile(Predicate<? super WorkItem> action) {
+        for (WorkItem wi = this; wi != null; wi = wi.nextInPreorder(this)) {
+            if (!action.test(wi)) return false;
+        }
+        return true;
+    }
+
+    // Item after this one in a depth-first walk of root's subtree, or null at the end.
+    // The next sibling is found by binary search in the parent's children, so the walk needs no stack at all.
+    private WorkItem nextInPreorder(WorkItem root) {
+        if (!children.isEmpty()) return children.get(0);
+
+        WorkItem current = this;
+        while (current != root) {
+            WorkItem parent = current.parent;
+            if (parent == null) return null;
+            int position = parent.children.indexOf(current) + 1;
+            if (position < parent.children.size()) return parent.children.get(position);
+            current = parent;
+        }
+        return null;
+    }
+
+    // Depth-first cursor over a WorkItem hierarchy. It keeps the position of the current item among its
+    // siblings for each depth in an int array, so moving on is an index increment: nothing is pushed per
+    // child and nothing is synchronized, unlike java.util.Stack.
     private static class WorkItemIterator implements Iterator<WorkItem> {
-        private final Stack<WorkItem> stack = new Stack<>();
+        private WorkItem next;
+        private int[] positions = new int[16]; // positions[d]: index among its siblings of the current item at depth d + 1
+        private int depth; // Depth of next below the root
 
         public WorkItemIterator(WorkItem root) {
-            if (root != null) stack.push(root);
+            this.next = root;
         }
 
         @Override
         public boolean hasNext() {
-            return !stack.isEmpty();
+            return next != null;
         }
 
         @Override
         public WorkItem next() {
-            WorkItem current = stack.pop();
-            // Add children in reverse order to maintain left-to-right traversal
-            List<WorkItem> children = current.getChildren();
-            for (int i = children.size() - 1; i >= 0; i--) {
-                stack.push(children.get(i));
-            }
+            WorkItem current = next;
+            if (current == null) throw new NoSuchElementException();
+            advance(current);
             return current;
         }
+
+        private void advance(WorkItem current) {
+            if (!current.children.isEmpty()) {
+                if (depth == positions.length) {
+                    positions = Arrays.copyOf(positions, depth * 2);
+                }
+                positions[depth++] = 0;
+                next = current.children.get(0);
+                return;
+            }
+
+            // Back up to the first ancestor with a next sibling
+            while (depth > 0) {
+                WorkItem parent = current.parent;
+                int position = positions[depth - 1] + 1;
+                if (position < parent.children.size()) {
+                    positions[depth - 1] = position;
+                    next = parent.children.get(position);
+                    return;
+                }
+                current = parent;
+                depth--;
+            }
+            next = null;
+        }
     }
 
-    private static Integer getNextIDInternal(List<? extends WorkItem> items, Set<Integer> visited) {
+    // An item reached twice cannot change the maximum, so no visited set is needed
+    private static int getMaxId(List<? extends WorkItem> items) {
         int maxId = 0;
         for (WorkItem root : items) {
-            for (WorkItem wi : root) { // use iterator
-                if (!visited.add(wi.getID())) continue;
-                if (wi.getID() > maxId) maxId = wi.getID();
+            for (WorkItem wi = root; wi != null; wi = wi.nextInPreorder(root)) {
+                if (wi.id > maxId) maxId = wi.id;
             }
         }
         return maxId;
@@ -128,68 +304,51 @@ public abstract class WorkItem implements Iterable<WorkItem> {
 
     public static WorkItem findById(List<WorkItem> items, int id) {
         for (WorkItem root : items) {
-            for (WorkItem wi : root) {
-                if (wi.getID() == id) return wi;
+            for (WorkItem wi = root; wi != null; wi = wi.nextInPreorder(root)) {
+                if (wi.id == id) return wi;
             }
         }
         return null;
     }
 
     public void printHierarchy(Integer depth, boolean printDetails) {
-        printHierarchy(depth, new HashSet<>(), printDetails);
-    }
-
-    private void printHierarchy(Integer depth, Set<Integer> visited, boolean printDetails) {
-        if (!visited.add(this.getID())) {
-            System.out.println(getPrefixByDepth(depth + 1, '-') + "[Cycle detected: ID " + this.getID() + "]");
-            return;
-        }
-        this.print(depth, printDetails);
-
-        if (printDetails) {
-            System.out.println(); // Empty line
-        }
-        
-        if (this.children != null) {
-            // Sort children by ID and print hierarchy
-            this.children.stream()
-                .sorted(Comparator.comparingInt(WorkItem::getID))
-                .forEach(wi -> wi.printHierarchy(depth + 1, visited, printDetails));
-        }
-        visited.remove(this.getID());
+        HierarchyRenderer renderer = new HierarchyRenderer(System.out);
+        renderer.render(this, depth, printDetails);
+        renderer.flush();
     }
 
     protected String getPrefixByDepth(Integer depth, Character character) {
         if (depth == 0)
             return "";
 
-        depth *= 4;
-        String prefix = "";
-
-        for (int i = 0; i < depth; i++) {
-            prefix += character;
+        if (depth < CACHED_PREFIXES) {
+            if (character == '-') return DASH_PREFIXES[depth];
+            if (character == ' ') return SPACE_PREFIXES[depth];
         }
+        return buildPrefix(depth, character);
+    }
 
-        prefix += " ";
+    private static String[] buildPrefixes(char character) {
+        String[] prefixes = new String[CACHED_PREFIXES];
+        prefixes[0] = "";
+        for (int depth = 1; depth < CACHED_PREFIXES; depth++) {
+            prefixes[depth] = buildPrefix(depth, character);
+        }
+        return prefixes;
+    }
 
-        return prefix;
+    private static String buildPrefix(int depth, char character) {
+        return String.valueOf(character).repeat(depth * 4) + " ";
     }
 
     public static String getClassFromLine(String line) {
         if (line == null || line.isEmpty()) return null;
 
-        String[] parts = line.split(";");
-        for (String part : parts) {
-            String[] kv = part.split("=", 2);
-            if (kv.length == 2) {
-                String key = kv[0].trim();
-                String value = kv[1].trim();
-                if (key.equalsIgnoreCase("Type")) {
-                    if (value.equalsIgnoreCase("epic") || value.equalsIgnoreCase("phase") ||  
-                    value.equalsIgnoreCase("feature") || value.equalsIgnoreCase("milestone") || 
-                    value.equalsIgnoreCase("task"))
-                    return value; // Here returning "Epic", "Phase", "Feature", etc.
-                }
+        LineTokenizer tokens = new LineTokenizer().reset(line);
+        int type = tokens.find("type");
+        for (WorkItemType workItemType : TYPES) {
+            if (tokens.valueEqualsIgnoreCase(type, workItemType.getDisplayName())) {
+                return tokens.getValue(type); // Here returning "Epic", "Phase", "Feature", etc.
             }
         }
 
@@ -200,18 +359,6 @@ public abstract class WorkItem implements Iterable<WorkItem> {
     public static Integer getParentIdFromLine(String line) {
         if (line == null || line.isEmpty()) return null;
 
-        String[] parts = line.split(";");
-        for (String part : parts) {
-            String[] kv = part.split("=");
-            if (kv.length == 2 && kv[0].trim().equalsIgnoreCase("ParentID")) {
-                try {
-                    return Integer.parseInt(kv[1].trim());
-                } 
-                catch (Exception e) {
-                    return null;
-                }
-            }
-        }
-        return null;
+        return new LineTokenizer().reset(line).getInteger("parentid");
     }
 }
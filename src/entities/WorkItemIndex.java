@@ -0,0 +1,111 @@
+package entities;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import utils.IntObjectMap;
+
+// Workspace-level index from ID to WorkItem.
+// Root items are added through the index, children are picked up by WorkItem.addChild,
+// so findById is a single hash lookup instead of a walk over the whole hierarchy.
+public class WorkItemIndex {
+    private final List<WorkItem> roots;
+    private final IntObjectMap<WorkItem> items = new IntObjectMap<>();
+    // Changes not yet synced: items added or modified, and IDs removed with the version of the removal
+    private final Set<WorkItem> dirty = new LinkedHashSet<>();
+    private final Map<Integer, Long> deleted = new LinkedHashMap<>();
+
+    public WorkItemIndex(List<WorkItem> roots) {
+        this.roots = roots;
+    }
+
+    public void addRoot(WorkItem root) {
+        roots.add(root);
+        register(root);
+    }
+
+    public boolean removeRoot(WorkItem root) {
+        if (!roots.remove(root)) return false;
+        unregister(root);
+        return true;
+    }
+
+    // Removes the item and its children from the workspace, whether it is a root or a child
+    public boolean remove(WorkItem item) {
+        WorkItem parent = item.getParent();
+        return parent != null ? parent.removeChild(item) : removeRoot(item);
+    }
+
+    // Indexes the item and all of its children
+    public void register(WorkItem item) {
+        item.forEachDescendant(this::registerOne);
+    }
+
+    private void registerOne(WorkItem wi) {
+        wi.index = this;
+        items.putIfAbsent(wi.getID(), wi);
+        wi.touch();
+        dirty.add(wi);
+        deleted.remove(wi.getID());
+    }
+
+    // Removes the item and all of its children from the index; their IDs are recorded as deletes for the next sync
+    public void unregister(WorkItem item) {
+        item.forEachDescendant(this::unregisterOne);
+    }
+
+    private void unregisterOne(WorkItem wi) {
+        items.remove(wi.getID(), wi);
+        wi.index = null;
+        dirty.remove(wi);
+        deleted.put(wi.getID(), WorkItem.nextVersion());
+    }
+
+    // Called by setID: the item is indexed under its new ID, and the old one is deleted for the next sync
+    void idChanged(WorkItem item, int oldId) {
+        if (items.remove(oldId, item) == null) return;
+        items.putIfAbsent(item.getID(), item);
+        deleted.put(oldId, WorkItem.nextVersion());
+        deleted.remove(item.getID());
+    }
+
+    void markDirty(WorkItem item) {
+        dirty.add(item);
+    }
+
+    // Items added or changed since the last clearChanges, in the order they were first changed
+    public List<WorkItem> getDirtyItems() {
+        return new ArrayList<>(dirty);
+    }
+
+    public List<Integer> getDeletedIds() {
+        return new ArrayList<>(deleted.keySet());
+    }
+
+    // Forgets the changes up to and including the given version, typically once they have been synced.
+    // Items changed again after that version stay dirty.
+    public void clearChanges(long upToVersion) {
+        dirty.removeIf(wi -> wi.getVersion() <= upToVersion);
+        deleted.values().removeIf(version -> version <= upToVersion);
+    }
+
+    public WorkItem findById(int id) {
+        WorkItem found = items.get(id);
+        // Debug mode only (run with -ea): compare with a full walk of the hierarchy
+        assert isConsistent(id, found) : "ID index out of sync with the hierarchy for ID " + id;
+        return found;
+    }
+
+    public int size() { return this.items.size(); }
+
+    private boolean isConsistent(int id, WorkItem found) {
+        WorkItem inTree = WorkItem.findById(roots, id);
+        if (found == null) return inTree == null;
+        // Same object, not just the same ID: a detached copy left in the index would still match on ID
+        return found == inTree;
+    }
+}
@@ -1,6 +1,29 @@
 package entities;
 
+import java.util.Collection;
+
 public interface WorkItemObserver {
     void onWorkItemAdded(WorkItem item);
     void onWorkItemDeleted(WorkItem item);
-}
\ No newline at end of file
+
+    // Bulk events: one call per import or subtree delete.
+    // The defaults fall back to the per-item callbacks, so existing observers keep working unchanged.
+    default void onWorkItemsAdded(Collection<? extends WorkItem> items) {
+        for (WorkItem item : items) {
+            onWorkItemAdded(item);
+        }
+    }
+
+    // Called once the subtree under root, count items including root, has been removed.
+    // Children are reported before their parent, as when deleting item by item.
+    default void onSubtreeDeleted(WorkItem root, int count) {
+        notifyEachDeleted(root);
+    }
+
+    private void notifyEachDeleted(WorkItem item) {
+        for (WorkItem child : item.getChildren()) {
+            notifyEachDeleted(child);
+        }
+        onWorkItemDeleted(item);
+    }
+}
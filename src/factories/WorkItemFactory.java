@@ -1,6 +1,7 @@
 package factories;
 import entities.*;
 import enums.*;
+import utils.LineTokenizer;
 
 // Factory
 public class WorkItemFactory {
@@ -26,15 +27,18 @@ public class WorkItemFactory {
     }
 
     public static WorkItem createWorkItem(String line) {
-        String type = WorkItem.getClassFromLine(line);
+        return createWorkItem(new LineTokenizer().reset(line));
+    }
+
+    // Dispatches on the Type field of an already tokenized line, so the line is scanned only once
+    public static WorkItem createWorkItem(LineTokenizer tokens) {
+        int type = tokens.find("type");
         
-        switch (type.toLowerCase()) {
-            case "epic": return Epic.parse(line);
-            case "phase": return Phase.parse(line);
-            case "feature": return Feature.parse(line);
-            case "milestone": return Milestone.parse(line);
-            case "task": return Task.parse(line);
-            default: throw new IllegalArgumentException("Unknown type: " + type);
-        }
+        if (tokens.valueEqualsIgnoreCase(type, "epic")) return Epic.parse(tokens);
+        if (tokens.valueEqualsIgnoreCase(type, "phase")) return Phase.parse(tokens);
+        if (tokens.valueEqualsIgnoreCase(type, "feature")) return Feature.parse(tokens);
+        if (tokens.valueEqualsIgnoreCase(type, "milestone")) return Milestone.parse(tokens);
+        if (tokens.valueEqualsIgnoreCase(type, "task")) return Task.parse(tokens);
+        throw new IllegalArgumentException("Unknown type: " + (type >= 0 ? tokens.getValue(type) : null));
     }
 }
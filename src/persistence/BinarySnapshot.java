@@ -0,0 +1,342 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import entities.*;
+import enums.PhaseType;
+import enums.WorkItemStatus;
+import enums.WorkItemType;
+import utils.IntHashSet;
+
+// Compact binary snapshot format, an alternative to the key=value text in data.txt.
+//
+// Layout (version 2):
+//   header   "PMWB", version byte
+//   item     type tag byte (WorkItemType ordinal), varint ID, varint parent ID + 1 (0 for roots),
+//            status ordinal byte, name, then the fields of the type in declaration order
+//   end      tag byte 0xFF after the last item
+//   trailer  CRC32 of everything before it, 4 bytes big-endian
+// Version 1 had a varint item count after the version byte instead of the end tag; it is still read.
+// The end tag lets the items be streamed out in one walk, which also decides which items are written.
+// Strings are a varint of the UTF-8 length + 1 (0 for null) followed by the bytes,
+// dates are a zigzag varint of the epoch day + 1 (0 for null), enums are ordinal + 1 (0 for null),
+// doubles are a presence byte followed by 8 bytes.
+// Items are written parents first, in the same order as data.txt, and written atomically like TextSnapshot.
+public class BinarySnapshot {
+    private static final byte[] MAGIC = { 'P', 'M', 'W', 'B' };
+    private static final int VERSION = 2;
+    private static final int VERSION_WITH_COUNT = 1;
+    private static final int END_TAG = 0xFF;
+    private static final WorkItemType[] TYPES = WorkItemType.values();
+    private static final WorkItemStatus[] STATUSES = WorkItemStatus.values();
+    private static final PhaseType[] PHASE_TYPES = PhaseType.values();
+
+    public static void write(Path target, List<WorkItem> roots) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output out = new Output(channel);
+            out.writeBytes(MAGIC);
+            out.writeByte(VERSION);
+
+            IntHashSet visited = new IntHashSet();
+            for (WorkItem root : roots) {
+                writeRecursive(out, root, null, visited);
+            }
+            out.writeByte(END_TAG);
+            out.finish();
+            channel.force(true);
+        }
+
+        TextSnapshot.replace(temp, target);
+    }
+
+    // Feeds every item in the file to the loader, which then links them like the text format
+    public static void read(Path file, WorkItemLoader loader) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) throw new IOException("Binary snapshot too large: " + size + " bytes");
+            if (size < MAGIC.length + 2 + 4) throw new IOException("Binary snapshot truncated: " + file);
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int bodyLength = (int) size - 4;
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().limit(bodyLength));
+            if ((int) crc.getValue() != buffer.getInt(bodyLength)) {
+                throw new IOException("Checksum mismatch in binary snapshot " + file);
+            }
+
+            Input in = new Input(buffer.limit(bodyLength));
+            for (byte b : MAGIC) {
+                if (in.readByte() != b) throw new IOException("Not a binary work item snapshot: " + file);
+            }
+            int version = in.readByte();
+            if (version == VERSION) {
+                int tag;
+                while ((tag = in.readByte()) != END_TAG) {
+                    readItem(tag, in, loader);
+                }
+            } else if (version == VERSION_WITH_COUNT) {
+                int count = in.readVarInt();
+                for (int i = 0; i < count; i++) {
+                    readItem(in.readByte(), in, loader);
+                }
+            } else {
+                throw new IOException("Unsupported binary snapshot version " + version);
+            }
+            if (in.hasRemaining()) throw new IOException("Unexpected data after the last item in " + file);
+        }
+    }
+
+    public static void convertTextToBinary(Path text, Path binary) throws IOException {
+        WorkItemLoader loader = new WorkItemLoader();
+        TextSnapshot.read(text, loader);
+        write(binary, loader.link());
+    }
+
+    public static void convertBinaryToText(Path binary, Path text) throws IOException {
+        WorkItemLoader loader = new WorkItemLoader();
+        read(binary, loader);
+        TextSnapshot.write(text, loader.link(), 1 << 16);
+    }
+
+    private static void writeRecursive(Output out, WorkItem wi, Integer parentId, IntHashSet visited) throws IOException {
+        if (wi == null || !visited.add(wi.getID())) return;
+        writeItem(out, wi, parentId);
+        for (WorkItem child : wi.getChildren()) {
+            writeRecursive(out, child, wi.getID(), visited);
+        }
+    }
+
+    private static void writeItem(Output out, WorkItem wi, Integer parentId) throws IOException {
+        WorkItemType type = typeOf(wi);
+        out.writeByte(type.ordinal());
+        out.writeVarInt(wi.getID());
+        // Epics are always roots, like in the text format
+        out.writeVarInt(parentId != null && type != WorkItemType.EPIC ? parentId + 1 : 0);
+        out.writeByte(wi.getStatus().ordinal());
+        out.writeString(wi.getName());
+
+        if (wi instanceof Epic) {
+            Epic epic = (Epic) wi;
+            out.writeString(epic.getDescription());
+            out.writeDate(epic.getStartDate());
+            out.writeDate(epic.getEndDate());
+        } else if (wi instanceof Phase) {
+            Phase phase = (Phase) wi;
+            out.writeByte(phase.getPhaseType() != null ? phase.getPhaseType().ordinal() + 1 : 0);
+            out.writeDate(phase.getStartDate());
+            out.writeDate(phase.getEndDate());
+        } else if (wi instanceof Feature) {
+            Feature feature = (Feature) wi;
+            out.writeString(feature.getDescription());
+            out.writeDouble(feature.getEstimatedHours());
+        } else if (wi instanceof Milestone) {
+            Milestone milestone = (Milestone) wi;
+            out.writeDate(milestone.getDueDate());
+        } else if (wi instanceof Task) {
+            Task task = (Task) wi;
+            out.writeString(task.getDescription());
+            out.writeDate(task.getDueDate());
+            out.writeDouble(task.getEstimatedHours());
+        }
+    }
+
+    private static void readItem(int tag, Input in, WorkItemLoader loader) throws IOException {
+        if (tag < 0 || tag >= TYPES.length) throw new IOException("Unknown type tag " + tag);
+        WorkItemType type = TYPES[tag];
+
+        int id = in.readVarInt();
+        int parent = in.readVarInt();
+        WorkItemStatus status = STATUSES[in.readByte()];
+        String name = in.readString();
+
+        // Built rather than set field by field, so loading doesn't bump the version clock for every field
+        WorkItem wi;
+        switch (type) {
+            case EPIC:
+                wi = Epic.builder().setID(id).setName(name).setStatus(status)
+                    .setDescription(in.readString())
+                    .setStartDate(in.readDate())
+                    .setEndDate(in.readDate())
+                    .build();
+                break;
+            case PHASE:
+                int phaseType = in.readByte();
+                wi = Phase.builder().setID(id).setName(name).setStatus(status)
+                    .setPhaseType(phaseType > 0 ? PHASE_TYPES[phaseType - 1] : null)
+                    .setStartDate(in.readDate())
+                    .setEndDate(in.readDate())
+                    .build();
+                break;
+            case FEATURE:
+                wi = Feature.builder().setID(id).setName(name).setStatus(status)
+                    .setDescription(in.readString())
+                    .setEstimatedHours(in.readDouble())
+                    .build();
+                break;
+            case MILESTONE:
+                wi = Milestone.builder().setID(id).setName(name).setStatus(status)
+                    .setDueDate(in.readDate())
+                    .build();
+                break;
+            default:
+                wi = Task.builder().setID(id).setName(name).setStatus(status)
+                    .setDescription(in.readString())
+                    .setDueDate(in.readDate())
+                    .setEstimatedHours(in.readDouble())
+                    .build();
+                break;
+        }
+        loader.add(wi, parent > 0 ? parent - 1 : null);
+    }
+
+    private static WorkItemType typeOf(WorkItem wi) {
+        if (wi instanceof Epic) return WorkItemType.EPIC;
+        if (wi instanceof Phase) return WorkItemType.PHASE;
+        if (wi instanceof Feature) return WorkItemType.FEATURE;
+        if (wi instanceof Milestone) return WorkItemType.MILESTONE;
+        return WorkItemType.TASK;
+    }
+
+    // Buffered writer over a channel that keeps a running CRC32 of everything written
+    private static class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        private final CRC32 crc = new CRC32();
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void writeByte(int value) throws IOException {
+            ensure(1);
+            buffer.put((byte) value);
+        }
+
+        void writeBytes(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                ensure(1);
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        void writeVarInt(int value) throws IOException {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        void writeVarLong(long value) throws IOException {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        void writeString(String value) throws IOException {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length + 1);
+            writeBytes(bytes);
+        }
+
+        void writeDate(LocalDate date) throws IOException {
+            if (date == null) {
+                writeVarLong(0);
+                return;
+            }
+            long day = date.toEpochDay();
+            writeVarLong(((day << 1) ^ (day >> 63)) + 1);
+        }
+
+        void writeDouble(Double value) throws IOException {
+            ensure(9);
+            buffer.put((byte) (value != null ? 1 : 0));
+            if (value != null) buffer.putDouble(value);
+        }
+
+        void finish() throws IOException {
+            flush();
+            ByteBuffer trailer = ByteBuffer.allocate(4).putInt((int) crc.getValue());
+            trailer.flip();
+            while (trailer.hasRemaining()) channel.write(trailer);
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) flush();
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+    }
+
+    private static class Input {
+        private final ByteBuffer buffer;
+        private byte[] scratch = new byte[256];
+
+        Input(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        int readByte() {
+            return buffer.get() & 0xFF;
+        }
+
+        boolean hasRemaining() {
+            return buffer.hasRemaining();
+        }
+
+        int readVarInt() throws IOException {
+            return (int) readVarLong();
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+            throw new IOException("Malformed varint");
+        }
+
+        String readString() throws IOException {
+            int length = readVarInt() - 1;
+            if (length < 0) return null;
+            if (scratch.length < length) scratch = new byte[Math.max(length, scratch.length * 2)];
+            buffer.get(scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        LocalDate readDate() throws IOException {
+            long encoded = readVarLong();
+            if (encoded == 0) return null;
+            long zigzag = encoded - 1;
+            return LocalDate.ofEpochDay((zigzag >>> 1) ^ -(zigzag & 1));
+        }
+
+        Double readDouble() {
+            return buffer.get() != 0 ? buffer.getDouble() : null;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Reads data.txt through a memory-mapped buffer instead of a Scanner.
+// Line boundaries are found directly in the mapped bytes, and each ASCII line is handed to the loader
+// as a CharSequence view over the bytes, so the tokenizer reads the fields without decoding the line into a String.
+// Lines with non-ASCII bytes are decoded as UTF-8. Lines end with "\n" or "\r\n".
+public class MappedLineReader {
+    private static final long WINDOW_SIZE = 1L << 28; // At most 256 MB mapped at a time
+    private static final int BLOCK_SIZE = 1 << 16;
+
+    public static void read(Path file, WorkItemLoader loader) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+
+            while (position < size) {
+                long length = Math.min(WINDOW_SIZE, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                // Every window but the last stops after its last complete line
+                int end = position + length < size ? afterLastNewline(buffer, (int) length) : (int) length;
+                if (end == 0) throw new IOException("Line longer than " + WINDOW_SIZE + " bytes in " + file);
+
+                readLines(buffer, 0, end, loader);
+                position += end;
+            }
+        }
+    }
+
+    // Feeds the lines between start and end (exclusive) to the loader.
+    // The mapped bytes are copied in blocks into a reused array, which the line views then read from.
+    public static void readLines(ByteBuffer buffer, int start, int end, WorkItemLoader loader) {
+        byte[] block = new byte[BLOCK_SIZE];
+        AsciiLine line = new AsciiLine();
+        int filled = 0;
+        int position = start;
+
+        while (true) {
+            int count = Math.min(block.length - filled, end - position);
+            buffer.get(position, block, filled, count);
+            position += count;
+            filled += count;
+
+            int lineStart = 0;
+            for (int i = 0; i < filled; i++) {
+                if (block[i] == '\n') {
+                    addLine(block, lineStart, i, line, loader);
+                    lineStart = i + 1;
+                }
+            }
+
+            if (position == end) {
+                if (lineStart < filled) addLine(block, lineStart, filled, line, loader);
+                return;
+            }
+
+            // Carry the incomplete line over to the next block
+            System.arraycopy(block, lineStart, block, 0, filled - lineStart);
+            filled -= lineStart;
+            if (filled == block.length) block = Arrays.copyOf(block, block.length * 2);
+        }
+    }
+
+    private static void addLine(byte[] bytes, int from, int to, AsciiLine line, WorkItemLoader loader) {
+        boolean ascii = true;
+        for (int i = from; i < to; i++) {
+            if (bytes[i] < 0) {
+                ascii = false;
+                break;
+            }
+        }
+
+        if (ascii) {
+            // Same trimming as String.trim on the Scanner path, which also drops the '\r'
+            while (from < to && bytes[from] <= ' ') from++;
+            while (to > from && bytes[to - 1] <= ' ') to--;
+            loader.addLine(line.reset(bytes, from, to - from));
+        } else {
+            loader.addLine(new String(bytes, from, to - from, StandardCharsets.UTF_8).trim());
+        }
+    }
+
+    // Returns the position just after the last '\n' in the first length bytes, or 0 if there is none
+    public static int afterLastNewline(ByteBuffer buffer, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (buffer.get(i) == '\n') return i + 1;
+        }
+        return 0;
+    }
+
+    // Read-only view of an ASCII line inside the block, reused for every line
+    private static class AsciiLine implements CharSequence {
+        private byte[] bytes;
+        private int offset;
+        private int length;
+
+        AsciiLine reset(byte[] bytes, int offset, int length) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) bytes[offset + index];
+        }
+
+        // Values are only copied out when the tokenizer needs them as Strings
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(bytes, offset + start, end - start, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, length).toString();
+        }
+    }
+}
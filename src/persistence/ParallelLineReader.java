@@ -0,0 +1,80 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Parses data.txt on a ForkJoinPool.
+// The mapped file is split into byte ranges that end on a newline, and each range is parsed into its own
+// WorkItemLoader. The chunk results are then merged into the caller's loader in file order, so linking
+// sees exactly the same sequence of items as with the sequential readers.
+public class ParallelLineReader {
+    private static final long WINDOW_SIZE = 1L << 28; // At most 256 MB mapped at a time
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+
+    public static void read(Path file, WorkItemLoader loader) throws IOException {
+        read(file, loader, ForkJoinPool.commonPool(), 0);
+    }
+
+    // A chunkSize of 0 sizes the chunks from the pool's parallelism
+    public static void read(Path file, WorkItemLoader loader, ForkJoinPool pool, int chunkSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+
+            while (position < size) {
+                long length = Math.min(WINDOW_SIZE, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                int end = position + length < size ? MappedLineReader.afterLastNewline(buffer, (int) length) : (int) length;
+                if (end == 0) throw new IOException("Line longer than " + WINDOW_SIZE + " bytes in " + file);
+
+                readWindow(buffer, end, loader, pool, chunkSize > 0 ? chunkSize : chunkSizeFor(end, pool));
+                position += end;
+            }
+        }
+    }
+
+    private static void readWindow(MappedByteBuffer buffer, int end, WorkItemLoader loader, ForkJoinPool pool, int chunkSize) {
+        List<ForkJoinTask<WorkItemLoader>> chunks = new ArrayList<>();
+
+        int start = 0;
+        while (start < end) {
+            int chunkEnd = nextLineStart(buffer, (int) Math.min((long) start + chunkSize, end), end);
+            int from = start;
+            // Absolute reads only, but each chunk gets its own view of the buffer anyway
+            MappedByteBuffer view = buffer.duplicate();
+            chunks.add(pool.submit(() -> {
+                WorkItemLoader chunk = new WorkItemLoader(false);
+                MappedLineReader.readLines(view, from, chunkEnd, chunk);
+                return chunk;
+            }));
+            start = chunkEnd;
+        }
+
+        // Merge in chunk order so duplicates and warnings resolve the same way as a sequential load
+        for (ForkJoinTask<WorkItemLoader> chunk : chunks) {
+            loader.addAll(chunk.join());
+        }
+    }
+
+    // Returns the position just after the first newline at or after from, or end if there is none
+    private static int nextLineStart(MappedByteBuffer buffer, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (buffer.get(i) == '\n') return i + 1;
+        }
+        return end;
+    }
+
+    // A few chunks per worker keeps the pool busy when some ranges parse slower than others
+    private static int chunkSizeFor(int length, ForkJoinPool pool) {
+        int chunks = pool.getParallelism() * 4;
+        return Math.max(MIN_CHUNK_SIZE, length / chunks + 1);
+    }
+}
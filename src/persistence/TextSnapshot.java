@@ -0,0 +1,135 @@
+package persistence;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Scanner;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import entities.WorkItem;
+
+// Crash-safe writes of the data.txt snapshot.
+// The snapshot is written to a temp file, forced to disk and then renamed over the old one,
+// so a crash mid-save leaves the previous snapshot intact. The directory is forced after the rename so the
+// new name survives a power loss too; where directories can't be opened (Windows) that step is skipped.
+// The last line is a "#CRC32=xxxxxxxx" trailer over all the bytes before it, which loaders skip as a comment.
+public class TextSnapshot {
+    public static final String CHECKSUM_PREFIX = "#CRC32=";
+
+    public enum Verification { VALID, MISSING, INVALID }
+
+    public static void write(Path target, List<WorkItem> roots, int bufferSize) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = Channels.newOutputStream(channel);
+            Writer writer = new BufferedWriter(new OutputStreamWriter(new CheckedOutputStream(out, crc), StandardCharsets.UTF_8), bufferSize);
+            new WorkItemWriter(writer).writeAll(roots);
+            writer.flush();
+
+            // The trailer itself is not part of the checksum
+            String trailer = CHECKSUM_PREFIX + String.format("%08x", crc.getValue()) + System.lineSeparator();
+            out.write(trailer.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            channel.force(true);
+        }
+
+        replace(temp, target);
+    }
+
+    // Renames temp over target and forces the directory entry to disk
+    static void replace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        Path dir = target.toAbsolutePath().getParent();
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported on this platform, the rename is still atomic
+        }
+    }
+
+    // Copies a damaged snapshot aside as <name>.corrupt before the next save replaces it, and returns the copy
+    public static Path keepCopy(Path file) throws IOException {
+        Path copy = file.resolveSibling(file.getFileName() + ".corrupt");
+        Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+        return copy;
+    }
+
+    // Feeds every line of the file to the loader
+    public static void read(Path file, WorkItemLoader loader) throws IOException {
+        try (Scanner scanner = new Scanner(file, StandardCharsets.UTF_8)) {
+            while (scanner.hasNextLine()) {
+                loader.addLine(scanner.nextLine().trim());
+            }
+        }
+    }
+
+    // Checks the trailer against the file contents. Files written before checksums were added have no trailer.
+    public static Verification verify(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long trailerStart = findLastLine(channel, size);
+            if (trailerStart < 0) return Verification.MISSING;
+
+            ByteBuffer tail = ByteBuffer.allocate((int) (size - trailerStart));
+            channel.read(tail, trailerStart);
+            String trailer = new String(tail.array(), 0, tail.position(), StandardCharsets.UTF_8).trim();
+            if (!trailer.startsWith(CHECKSUM_PREFIX)) return Verification.MISSING;
+
+            long expected;
+            try {
+                expected = Long.parseLong(trailer.substring(CHECKSUM_PREFIX.length()), 16);
+            } catch (NumberFormatException e) {
+                return Verification.INVALID;
+            }
+
+            CRC32 crc = new CRC32();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+            long position = 0;
+            while (position < trailerStart) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), trailerStart - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) break;
+                buffer.flip();
+                crc.update(buffer);
+                position += read;
+            }
+            return crc.getValue() == expected ? Verification.VALID : Verification.INVALID;
+        }
+    }
+
+    // Returns where the last non-empty line starts, or -1 if the file doesn't end with a short line
+    private static long findLastLine(FileChannel channel, long size) throws IOException {
+        int length = (int) Math.min(size, 64);
+        ByteBuffer tail = ByteBuffer.allocate(length);
+        channel.read(tail, size - length);
+        byte[] bytes = tail.array();
+
+        int end = length;
+        while (end > 0 && (bytes[end - 1] == '\n' || bytes[end - 1] == '\r')) end--;
+        for (int i = end - 1; i >= 0; i--) {
+            if (bytes[i] == '\n') return size - length + i + 1;
+        }
+        return length == size ? 0 : -1;
+    }
+}
@@ -0,0 +1,247 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import entities.Task;
+import entities.WorkItem;
+import entities.WorkItemIndex;
+import factories.WorkItemFactory;
+import utils.LineTokenizer;
+
+// Append-only write-ahead journal of workspace changes, kept next to the data.txt snapshot.
+// Each change is one line appended and forced to disk, so an edit costs the same regardless of workspace size.
+// On load the snapshot is read first and the journal is replayed on top of it;
+// compaction writes a new snapshot and then empties the journal.
+//
+// Records use the data.txt format with an extra Op key, behind the CRC32 of the record in hex and a space:
+//   xxxxxxxx Op=Add;Type=Task;ID=12;ParentID=5;...
+//   xxxxxxxx Op=Update;Type=Task;ID=12;ParentID=5;...
+//   xxxxxxxx Op=Delete;ID=12
+//   xxxxxxxx Op=LastID;ID=40
+// A crash mid-append leaves a record without its newline or with a wrong checksum. Replay stops at the first
+// such record and truncates the journal there, so the next append doesn't follow a torn line.
+// Replaying is idempotent, so a crash between writing a snapshot and emptying the journal loses nothing.
+// Emptying the journal leaves a LastID record with the last ID handed out, so IDs of items deleted before the
+// snapshot are not handed out again after a restart.
+public class WorkItemJournal implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(WorkItemJournal.class.getName());
+    private static final int CHECKSUM_LENGTH = 8;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final Path file;
+    private final StringBuilder record = new StringBuilder(256);
+    private final CRC32 crc = new CRC32();
+    private FileChannel channel;
+    private int recordCount;
+    private int maxId;
+
+    public WorkItemJournal(Path file) {
+        this.file = file;
+    }
+
+    public int getRecordCount() { return this.recordCount; }
+
+    // Highest work item ID seen while replaying, including items deleted later in the journal and the LastID record
+    public int getMaxId() { return this.maxId; }
+
+    public synchronized void appendAdd(WorkItem item) throws IOException {
+        append("Add", item);
+    }
+
+    public synchronized void appendUpdate(WorkItem item) throws IOException {
+        append("Update", item);
+    }
+
+    public synchronized void appendDelete(WorkItem item) throws IOException {
+        record.setLength(0);
+        record.append("Op=Delete;ID=").append(item.getID());
+        write();
+    }
+
+    private void append(String op, WorkItem item) throws IOException {
+        WorkItem parent = item.getParent();
+        record.setLength(0);
+        record.append("Op=").append(op).append(';');
+        item.serialize(parent != null ? parent.getID() : null, record);
+        write();
+    }
+
+    private void write() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+
+        writeRecord(channel);
+        recordCount++;
+    }
+
+    private void writeRecord(FileChannel channel) throws IOException {
+        byte[] body = record.toString().getBytes(StandardCharsets.UTF_8);
+        crc.reset();
+        crc.update(body);
+        long checksum = crc.getValue();
+
+        ByteBuffer bytes = ByteBuffer.allocate(CHECKSUM_LENGTH + 1 + body.length + 1);
+        for (int shift = (CHECKSUM_LENGTH - 1) * 4; shift >= 0; shift -= 4) {
+            bytes.put(HEX[(int) (checksum >>> shift) & 0xf]);
+        }
+        bytes.put((byte) ' ').put(body).put((byte) '\n').flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        channel.force(false);
+    }
+
+    // Applies the journal records to the workspace and returns how many were applied.
+    // Everything from the first torn or corrupt record on is dropped from the file.
+    public synchronized int replay(WorkItemIndex workItemIndex) throws IOException {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            return 0; // No changes since the last snapshot
+        }
+
+        int applied = 0;
+        LineTokenizer tokens = new LineTokenizer();
+        int position = 0;
+        while (position < bytes.length) {
+            int end = indexOf(bytes, (byte) '\n', position);
+            if (end < 0) break; // Torn append
+            String line = checkedRecord(bytes, position, end);
+            if (line == null) break;
+            position = end + 1;
+
+            if (line.isBlank()) continue;
+            recordCount++;
+            try {
+                if (apply(tokens.reset(line), workItemIndex)) applied++;
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Skipped invalid journal record: " + line, e);
+            }
+        }
+
+        if (position < bytes.length) {
+            logger.log(Level.WARNING, "Dropped " + (bytes.length - position) + " bytes of torn or corrupt records at the end of " + file);
+            try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                out.truncate(position);
+                out.force(true);
+            }
+        }
+        return applied;
+    }
+
+    // Record between start and the newline at end, or null if its checksum doesn't match
+    private String checkedRecord(byte[] bytes, int start, int end) {
+        if (end > start && bytes[end - 1] == '\r') end--;
+        if (end == start) return "";
+        int body = start + CHECKSUM_LENGTH + 1;
+        if (body > end || bytes[body - 1] != ' ') return null;
+
+        long expected = 0;
+        for (int i = start; i < body - 1; i++) {
+            int digit = Character.digit(bytes[i], 16);
+            if (digit < 0) return null;
+            expected = (expected << 4) | digit;
+        }
+        crc.reset();
+        crc.update(bytes, body, end - body);
+        if (crc.getValue() != expected) return null;
+        return new String(bytes, body, end - body, StandardCharsets.UTF_8);
+    }
+
+    private static int indexOf(byte[] bytes, byte value, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == value) return i;
+        }
+        return -1;
+    }
+
+    private boolean apply(LineTokenizer tokens, WorkItemIndex workItemIndex) {
+        int op = tokens.find("op");
+        if (tokens.valueEqualsIgnoreCase(op, "lastid")) {
+            maxId = Math.max(maxId, tokens.getInt("id"));
+            return false;
+        }
+        if (tokens.valueEqualsIgnoreCase(op, "delete")) {
+            WorkItem existing = workItemIndex.findById(tokens.getInt("id"));
+            return existing != null && workItemIndex.remove(existing);
+        }
+
+        WorkItem item = WorkItemFactory.createWorkItem(tokens);
+        if (item == null) return false;
+        if (item.getID() > maxId) maxId = item.getID();
+
+        WorkItem existing = workItemIndex.findById(item.getID());
+        if (tokens.valueEqualsIgnoreCase(op, "add")) {
+            // Already part of the snapshot
+            if (existing != null) return false;
+            return attach(item, tokens.getInteger("parentid"), workItemIndex);
+        }
+        if (tokens.valueEqualsIgnoreCase(op, "update")) {
+            if (existing == null) return false;
+            workItemIndex.remove(existing);
+            // The updated item takes over the children of the old one
+            List<WorkItem> children = new ArrayList<>(existing.getChildren());
+            for (WorkItem child : children) {
+                existing.removeChild(child);
+                item.addChild(child);
+            }
+            return attach(item, tokens.getInteger("parentid"), workItemIndex);
+        }
+        throw new IllegalArgumentException("Unknown journal operation");
+    }
+
+    private boolean attach(WorkItem item, Integer parentId, WorkItemIndex workItemIndex) {
+        if (parentId == null) {
+            workItemIndex.addRoot(item);
+            return true;
+        }
+
+        WorkItem parent = workItemIndex.findById(parentId);
+        // Parent can't be null and can't be a Task
+        if (parent == null || parent instanceof Task || WorkItem.wouldCreateCycle(parent, item)) {
+            logger.log(Level.WARNING, "Invalid Parent ID in journal, skipped item ID " + item.getID());
+            System.out.println("Warning: Invalid Parent ID in journal, skipped item ID " + item.getID());
+            return false;
+        }
+        parent.addChild(item);
+        return true;
+    }
+
+    // Empties the journal once its changes are part of a new snapshot, keeping only a LastID record.
+    // The new journal is written to a temp file and renamed over the old one, so a crash leaves one or the other.
+    public synchronized void clear(int lastId) throws IOException {
+        close();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        record.setLength(0);
+        record.append("Op=LastID;ID=").append(lastId);
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeRecord(out);
+        }
+
+        TextSnapshot.replace(temp, file);
+        recordCount = 0;
+        maxId = Math.max(maxId, lastId);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+}
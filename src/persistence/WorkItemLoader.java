@@ -0,0 +1,163 @@
+package persistence;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import entities.Task;
+import entities.WorkItem;
+import factories.WorkItemFactory;
+import utils.IntObjectMap;
+import utils.LineTokenizer;
+
+// Builds the work item hierarchy from parsed lines.
+// Items are indexed by ID while parsing, so each parent is resolved with a single lookup,
+// and circular references are broken afterwards with one coloring pass over the parent links.
+public class WorkItemLoader {
+    private static final Logger logger = Logger.getLogger(WorkItemLoader.class.getName());
+
+    private final LineTokenizer tokens = new LineTokenizer();
+    private static final int NO_PARENT = Integer.MIN_VALUE; // Root items, which have no ParentID
+
+    private final IntObjectMap<WorkItem> index;
+    private final List<WorkItem> items = new ArrayList<>();
+    private int[] parentIds = new int[64]; // Parent ID of each item in items, by position
+    private int maxId = 0;
+
+    public WorkItemLoader() {
+        this.index = new IntObjectMap<>();
+    }
+
+    // Chunk loaders only collect items; the index is built once they are merged into the main loader
+    WorkItemLoader(boolean indexed) {
+        this.index = indexed ? new IntObjectMap<>() : null;
+    }
+
+    public void addLine(CharSequence line) {
+        // Skip blank lines, comments and the checksum trailer
+        if (line == null || line.length() == 0 || line.charAt(0) == '#') return;
+
+        // The line is tokenized once and the same tokens serve the parent ID and the item fields
+        tokens.reset(line);
+        Integer parentID = tokens.getInteger("parentid");
+        WorkItem parsedItem = WorkItemFactory.createWorkItem(tokens);
+        if (parsedItem != null) {
+            add(parsedItem, parentID);
+        }
+    }
+
+    public void add(WorkItem item, Integer parentId) {
+        add(item, parentId != null ? parentId : NO_PARENT);
+    }
+
+    private void add(WorkItem item, int parentId) {
+        if (items.size() == parentIds.length) {
+            parentIds = Arrays.copyOf(parentIds, parentIds.length * 2);
+        }
+        parentIds[items.size()] = parentId;
+        items.add(item);
+        if (item.getID() > maxId) maxId = item.getID();
+        // In case of duplicate IDs the first item in the file wins as parent
+        if (index != null) index.putIfAbsent(item.getID(), item);
+    }
+
+    // Appends the items parsed by another loader, keeping their order
+    public void addAll(WorkItemLoader other) {
+        for (int i = 0; i < other.items.size(); i++) {
+            add(other.items.get(i), other.parentIds[i]);
+        }
+    }
+
+    public IntObjectMap<WorkItem> getIndex() { return this.index; }
+
+    public int size() { return this.items.size(); }
+
+    public int getMaxId() { return this.maxId; }
+
+    // Links every item to its parent and returns the root items, in file order
+    public List<WorkItem> link() {
+        List<WorkItem> roots = new ArrayList<>();
+        int linked = 0;
+
+        for (int i = 0; i < items.size(); i++) {
+            WorkItem item = items.get(i);
+            int parentId = parentIds[i];
+            if (parentId == NO_PARENT) {
+                roots.add(item);
+                continue;
+            }
+
+            WorkItem parent = index.get(parentId);
+            // Parent can't be null and can't be a Task
+            if (parent != null && !(parent instanceof Task)) {
+                parent.addChild(item);
+                linked++;
+            } else {
+                logger.log(Level.WARNING, "Invalid Parent ID, skipped item ID " + item.getID());
+                System.out.println("Warning: Invalid Parent ID, skipped item ID " + item.getID());
+            }
+        }
+
+        // A cycle has no way up to a root, so the walk below is only needed when some linked item can't be
+        // reached from the roots: a cycle, or the subtree of an item whose own parent was invalid
+        if (countBelow(roots) != linked) {
+            breakCycles();
+        }
+        return roots;
+    }
+
+    // Number of items under the roots, not counting the roots themselves.
+    // Adds up the sizes of the child lists, which is cheaper than visiting the items one by one.
+    private static int countBelow(List<WorkItem> roots) {
+        int count = 0;
+        Deque<WorkItem> stack = new ArrayDeque<>(roots);
+        while (!stack.isEmpty()) {
+            List<WorkItem> children = stack.pop().getChildren();
+            count += children.size();
+            for (int i = 0; i < children.size(); i++) {
+                WorkItem child = children.get(i);
+                if (!child.getChildren().isEmpty()) stack.push(child);
+            }
+        }
+        return count;
+    }
+
+    // Every item has at most one parent, so following parent links from each item visits the graph once:
+    // items on the current path are "grey", items already walked are "black".
+    // Reaching a grey item again means the last link closes a cycle, which is then removed.
+    private void breakCycles() {
+        Set<WorkItem> visited = Collections.newSetFromMap(new IdentityHashMap<>(items.size()));
+        Set<WorkItem> onPath = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<WorkItem> path = new ArrayList<>();
+
+        for (WorkItem start : items) {
+            WorkItem current = start;
+            while (current != null && visited.add(current)) {
+                onPath.add(current);
+                path.add(current);
+
+                WorkItem parent = current.getParent();
+                if (parent != null && onPath.contains(parent)) {
+                    // Prevent circular reference
+                    parent.removeChild(current);
+                    logger.log(Level.WARNING, "Skipped circular reference for item ID " + current.getID());
+                    System.out.println("Warning: Skipped circular reference for item ID " + current.getID());
+                    break;
+                }
+                current = parent;
+            }
+
+            for (WorkItem wi : path) {
+                onPath.remove(wi);
+            }
+            path.clear();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package persistence;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import entities.WorkItem;
+import utils.IntHashSet;
+
+// Streams work items to a Writer in the data.txt format.
+// Every line is serialized into the same StringBuilder and copied out through the same char buffer,
+// so writing a large workspace does not create a String per item.
+public class WorkItemWriter {
+    private final Writer writer;
+    private final StringBuilder line = new StringBuilder(256);
+    private final String lineSeparator = System.lineSeparator();
+    private char[] chars = new char[256];
+
+    public WorkItemWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    // Writes each root followed by its children, depth-first
+    public void writeAll(List<WorkItem> roots) throws IOException {
+        IntHashSet visited = new IntHashSet();
+        for (WorkItem wi : roots) {
+            writeRecursive(wi, null, visited); // null for root parent
+        }
+    }
+
+    public void writeLine(WorkItem wi, Integer parentId) throws IOException {
+        line.setLength(0);
+        wi.serialize(parentId, line);
+        line.append(lineSeparator);
+
+        int length = line.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        line.getChars(0, length, chars, 0);
+        writer.write(chars, 0, length);
+    }
+
+    private void writeRecursive(WorkItem wi, Integer parentId, IntHashSet visited) throws IOException {
+        if (wi == null || !visited.add(wi.getID())) return;
+        writeLine(wi, parentId);
+        for (WorkItem child : wi.getChildren()) {
+            writeRecursive(child, wi.getID(), visited);
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package sync;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import entities.WorkItem;
+import entities.WorkItemIndex;
+
+// Sends work items in batches, with at most maxInFlight requests waiting on the transport at a time.
+// A failed request is retried with backoff according to the RetryPolicy, and with a checkpoint file
+// every acknowledged batch is recorded so an interrupted syncChanges resumes instead of starting over.
+// Each request runs on a virtual thread when the runtime has them (Java 21+), otherwise on a pool
+// of maxInFlight platform threads; the semaphore keeps the number of requests bounded either way.
+public class BatchingSyncEngine implements SyncEngine {
+    private static final Logger logger = Logger.getLogger(BatchingSyncEngine.class.getName());
+
+    private final SyncTransport transport;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final RetryPolicy retryPolicy;
+    private final Path checkpointFile;
+    private final PrintStream progressOutput;
+    private final long progressIntervalMillis;
+    private final SyncMetrics metrics = new SyncMetrics();
+    private volatile long watermark = 0;
+
+    private BatchingSyncEngine(Builder builder) {
+        this.transport = builder.transport;
+        this.batchSize = builder.batchSize;
+        this.maxInFlight = builder.maxInFlight;
+        this.retryPolicy = builder.retryPolicy;
+        this.checkpointFile = builder.checkpointFile;
+        this.progressOutput = builder.progressOutput;
+        this.progressIntervalMillis = builder.progressIntervalMillis;
+    }
+
+    public static class Builder {
+        private SyncTransport transport;
+        private int batchSize = 100;
+        private int maxInFlight = 16;
+        private RetryPolicy retryPolicy = RetryPolicy.builder().build();
+        private Path checkpointFile;
+        private PrintStream progressOutput;
+        private long progressIntervalMillis = 1000;
+
+        public Builder setTransport(SyncTransport transport) { this.transport = transport; return this; }
+        public Builder setBatchSize(int batchSize) { this.batchSize = batchSize; return this; }
+        public Builder setMaxInFlight(int maxInFlight) { this.maxInFlight = maxInFlight; return this; }
+        public Builder setRetryPolicy(RetryPolicy retryPolicy) { this.retryPolicy = retryPolicy; return this; }
+        // Without a checkpoint file an interrupted syncChanges starts over
+        public Builder setCheckpointFile(Path checkpointFile) { this.checkpointFile = checkpointFile; return this; }
+        // Progress lines are only printed when an output is set
+        public Builder setProgressOutput(PrintStream progressOutput) { this.progressOutput = progressOutput; return this; }
+        public Builder setProgressIntervalMillis(long progressIntervalMillis) { this.progressIntervalMillis = progressIntervalMillis; return this; }
+
+        public BatchingSyncEngine build() {
+            if (transport == null) throw new IllegalArgumentException("Transport is required");
+            if (batchSize < 1) throw new IllegalArgumentException("Batch size must be positive");
+            if (maxInFlight < 1) throw new IllegalArgumentException("Requests in flight must be positive");
+            if (retryPolicy == null) throw new IllegalArgumentException("Retry policy is required");
+            if (progressIntervalMillis < 1) throw new IllegalArgumentException("Progress interval must be positive");
+            return new BatchingSyncEngine(this);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public SyncMetrics getMetrics() { return this.metrics; }
+
+    // Version up to which every change has reached the server
+    public long getWatermark() { return this.watermark; }
+
+    @Override
+    public SyncResult sync(List<? extends WorkItem> items) throws InterruptedException {
+        return send(items, Collections.emptyList(), null);
+    }
+
+    @Override
+    public SyncResult syncChanges(WorkItemIndex index) throws InterruptedException {
+        // Changes made from here on get a higher version and stay dirty for the next sync
+        long upTo = WorkItem.currentVersion();
+
+        SyncCheckpoint checkpoint = null;
+        if (checkpointFile != null) {
+            try {
+                checkpoint = SyncCheckpoint.open(checkpointFile);
+                if (checkpoint.size() > 0) {
+                    logger.log(Level.INFO, "Resuming sync, " + checkpoint.size() + " changes already on the server");
+                }
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to read sync checkpoint, syncing everything again", e);
+            }
+        }
+
+        try {
+            SyncResult result = send(index.getDirtyItems(), index.getDeletedIds(), checkpoint);
+            if (result.isComplete()) {
+                index.clearChanges(upTo);
+                watermark = upTo;
+                if (checkpoint != null) completeQuietly(checkpoint);
+            }
+            return result;
+        } finally {
+            closeQuietly(checkpoint);
+        }
+    }
+
+    private SyncResult send(List<? extends WorkItem> items, List<Integer> deletedIds, SyncCheckpoint checkpoint)
+            throws InterruptedException {
+        long start = System.nanoTime();
+
+        // Serialized up front, so changes already acknowledged in an interrupted run can be recognised
+        List<WorkItem> pending = new ArrayList<>(items.size());
+        List<String> records = new ArrayList<>(items.size());
+        int resumed = 0;
+        for (WorkItem wi : items) {
+            WorkItem parent = wi.getParent();
+            String serialized = wi.serialize(parent != null ? parent.getID() : null);
+            if (checkpoint != null && checkpoint.isSynced(wi.getID(), serialized)) {
+                resumed++;
+                continue;
+            }
+            pending.add(wi);
+            records.add(serialized);
+        }
+        List<Integer> deletes = new ArrayList<>(deletedIds.size());
+        int resumedDeletes = 0;
+        for (Integer id : deletedIds) {
+            if (checkpoint != null && checkpoint.isDeleted(id)) {
+                resumedDeletes++;
+            } else {
+                deletes.add(id);
+            }
+        }
+
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicInteger synced = new AtomicInteger(resumed);
+        AtomicInteger syncedDeletes = new AtomicInteger(resumedDeletes);
+        AtomicInteger failedBatches = new AtomicInteger();
+        int batches = 0;
+        List<SyncResult.Wave> waves = new ArrayList<>();
+
+        SyncProgressTracker progress = progressOutput == null ? null
+            : new SyncProgressTracker((long) pending.size() + deletes.size(), progressIntervalMillis, progressOutput).start();
+        ExecutorService executor = newExecutor(maxInFlight);
+        try {
+            List<List<Integer>> depths = wavesByDepth(pending);
+            for (int depth = 0; depth < depths.size(); depth++) {
+                List<Integer> wave = depths.get(depth);
+                if (wave.isEmpty()) continue;
+                long waveStart = System.nanoTime();
+
+                for (int from = 0; from < wave.size(); from += batchSize) {
+                    List<Integer> batchIds = new ArrayList<>(batchSize);
+                    List<String> batch = new ArrayList<>(batchSize);
+                    for (int i = from; i < Math.min(from + batchSize, wave.size()); i++) {
+                        batchIds.add(pending.get(wave.get(i)).getID());
+                        batch.add(records.get(wave.get(i)));
+                    }
+                    inFlight.acquire();
+                    batches++;
+                    executor.execute(() -> {
+                        try {
+                            if (sendWithRetry(batch.size(), () -> transport.send(batch))) {
+                                synced.addAndGet(batch.size());
+                                if (progress != null) progress.add(batch.size());
+                                if (checkpoint != null) checkpoint.recordSynced(batchIds, batch);
+                            } else {
+                                failedBatches.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            logger.log(Level.WARNING, "Failed to update sync checkpoint", e);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+
+                // The next depth starts only once every parent in this one has been answered
+                awaitAll(inFlight);
+                waves.add(new SyncResult.Wave(depth, wave.size(), System.nanoTime() - waveStart));
+                if (failedBatches.get() > 0) {
+                    // Their children would arrive as orphans; they go out with the next sync instead
+                    logger.log(Level.WARNING, "Sync stopped after depth " + depth + " because some parents failed");
+                    break;
+                }
+            }
+
+            long deleteStart = System.nanoTime();
+            for (int from = 0; from < deletes.size(); from += batchSize) {
+                List<Integer> batch = deletes.subList(from, Math.min(from + batchSize, deletes.size()));
+                inFlight.acquire();
+                batches++;
+                executor.execute(() -> {
+                    try {
+                        if (sendWithRetry(batch.size(), () -> transport.delete(batch))) {
+                            syncedDeletes.addAndGet(batch.size());
+                            if (progress != null) progress.add(batch.size());
+                            if (checkpoint != null) checkpoint.recordDeleted(batch);
+                        } else {
+                            failedBatches.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        logger.log(Level.WARNING, "Failed to update sync checkpoint", e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            awaitAll(inFlight);
+            if (!deletes.isEmpty()) waves.add(new SyncResult.Wave(-1, deletes.size(), System.nanoTime() - deleteStart));
+        } finally {
+            executor.shutdownNow();
+            if (progress != null) progress.close();
+        }
+
+        for (SyncResult.Wave wave : waves) {
+            logger.log(Level.INFO, "Sync wave " + wave);
+        }
+        return new SyncResult(items.size(), synced.get(), deletedIds.size(), syncedDeletes.get(),
+            batches, failedBatches.get(), System.nanoTime() - start, waves);
+    }
+
+    // Every permit back means every request sent so far has been answered
+    private void awaitAll(Semaphore inFlight) throws InterruptedException {
+        inFlight.acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+    }
+
+    // Groups the positions of the pending items by depth in the hierarchy, so parents go out in an earlier wave
+    // than their children. Within a wave the items of different root epics take turns, which spreads the
+    // requests over the whole workspace instead of working through one epic after another.
+    static List<List<Integer>> wavesByDepth(List<WorkItem> pending) {
+        Map<WorkItem, Integer> depths = new IdentityHashMap<>();
+        Map<WorkItem, WorkItem> roots = new IdentityHashMap<>();
+        List<WorkItem> path = new ArrayList<>();
+        List<Map<WorkItem, List<Integer>>> byDepth = new ArrayList<>();
+
+        for (int i = 0; i < pending.size(); i++) {
+            WorkItem wi = pending.get(i);
+
+            // Walk up to the first ancestor with a known depth, then fill in the path below it
+            WorkItem current = wi;
+            while (current != null && !depths.containsKey(current)) {
+                path.add(current);
+                current = current.getParent();
+            }
+            int depth = current == null ? -1 : depths.get(current);
+            WorkItem root = current == null ? path.get(path.size() - 1) : roots.get(current);
+            for (int p = path.size() - 1; p >= 0; p--) {
+                depths.put(path.get(p), ++depth);
+                roots.put(path.get(p), root);
+            }
+            path.clear();
+
+            while (byDepth.size() <= depth) byDepth.add(new LinkedHashMap<>());
+            byDepth.get(depth).computeIfAbsent(root, r -> new ArrayList<>()).add(i);
+        }
+
+        List<List<Integer>> waves = new ArrayList<>(byDepth.size());
+        for (Map<WorkItem, List<Integer>> groups : byDepth) {
+            waves.add(interleave(new ArrayList<>(groups.values())));
+        }
+        return waves;
+    }
+
+    // Round-robin over the groups: first item of each, then the second of each, and so on
+    private static List<Integer> interleave(List<List<Integer>> groups) {
+        List<Integer> merged = new ArrayList<>();
+        for (int round = 0; !groups.isEmpty(); round++) {
+            int kept = 0;
+            for (List<Integer> group : groups) {
+                merged.add(group.get(round));
+                if (round + 1 < group.size()) groups.set(kept++, group);
+            }
+            groups.subList(kept, groups.size()).clear();
+        }
+        return merged;
+    }
+
+    private interface Request {
+        void run() throws IOException;
+    }
+
+    // Tries the request up to the policy's limit, waiting with backoff in between; returns false if it never succeeded
+    private boolean sendWithRetry(int items, Request request) {
+        for (int attempt = 1; ; attempt++) {
+            metrics.recordAttempt(items);
+            long start = System.nanoTime();
+            try {
+                request.run();
+                metrics.recordLatency(System.nanoTime() - start);
+                metrics.recordSuccess(items);
+                return true;
+            } catch (IOException | RuntimeException e) {
+                metrics.recordLatency(System.nanoTime() - start);
+                if (attempt >= retryPolicy.getMaxAttempts()) {
+                    metrics.recordFailure(items);
+                    logger.log(Level.WARNING, "Sync request for " + items + " items failed after " + attempt + " attempts", e);
+                    return false;
+                }
+            }
+
+            metrics.recordRetry(items);
+            try {
+                Thread.sleep(retryPolicy.backoffMillis(attempt));
+            } catch (InterruptedException e) {
+                // The sync is being cancelled
+                Thread.currentThread().interrupt();
+                metrics.recordFailure(items);
+                return false;
+            }
+        }
+    }
+
+    private static void completeQuietly(SyncCheckpoint checkpoint) {
+        try {
+            checkpoint.complete();
+        } catch (IOException e) {
+            // A stale checkpoint only means the next sync skips items whose records are unchanged
+            logger.log(Level.WARNING, "Failed to remove sync checkpoint", e);
+        }
+    }
+
+    private static void closeQuietly(SyncCheckpoint checkpoint) {
+        if (checkpoint == null) return;
+        try {
+            checkpoint.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to close sync checkpoint", e);
+        }
+    }
+
+    // Virtual threads are looked up reflectively so the code still compiles and runs on Java 17
+    private static ExecutorService newExecutor(int maxInFlight) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(maxInFlight, runnable -> {
+                Thread thread = new Thread(runnable, "sync-request");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
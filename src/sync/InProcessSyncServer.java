@@ -0,0 +1,87 @@
+package sync;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import utils.LineTokenizer;
+
+// Stand-in for a sync server, running in the same process.
+// Every request waits a random latency between minLatencyMillis and maxLatencyMillis, like a round trip,
+// and the received records are kept by work item ID so a test can check what arrived.
+public class InProcessSyncServer implements SyncTransport {
+    private final long minLatencyMillis;
+    private final long maxLatencyMillis;
+    private final Map<Integer, String> records = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    public InProcessSyncServer(long minLatencyMillis, long maxLatencyMillis) {
+        if (minLatencyMillis < 0 || maxLatencyMillis < minLatencyMillis) {
+            throw new IllegalArgumentException("Invalid latency range " + minLatencyMillis + "-" + maxLatencyMillis);
+        }
+        this.minLatencyMillis = minLatencyMillis;
+        this.maxLatencyMillis = maxLatencyMillis;
+    }
+
+    @Override
+    public void send(List<String> batch) throws IOException {
+        int concurrent = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(concurrent, Math::max);
+        try {
+            simulateLatency();
+
+            LineTokenizer tokens = new LineTokenizer();
+            for (String record : batch) {
+                tokens.reset(record);
+                records.put(tokens.getInt("id"), record);
+            }
+            requests.increment();
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Malformed record", e);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void delete(List<Integer> ids) throws IOException {
+        int concurrent = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(concurrent, Math::max);
+        try {
+            simulateLatency();
+            for (Integer id : ids) {
+                records.remove(id);
+            }
+            requests.increment();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void simulateLatency() throws IOException {
+        long latency = minLatencyMillis == maxLatencyMillis
+            ? minLatencyMillis
+            : ThreadLocalRandom.current().nextLong(minLatencyMillis, maxLatencyMillis + 1);
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Request interrupted", e);
+        }
+    }
+
+    public String getRecord(int id) { return records.get(id); }
+
+    public int getRecordCount() { return records.size(); }
+
+    public long getRequestCount() { return requests.sum(); }
+
+    // Highest number of requests that were being handled at the same time
+    public int getMaxInFlight() { return maxInFlight.get(); }
+}
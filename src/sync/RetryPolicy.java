@@ -0,0 +1,54 @@
+package sync;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// How often a failed request is tried again and how long to wait in between.
+// The wait doubles with every attempt up to maxBackoffMillis, and a random delay in [0, wait]
+// is used ("full jitter") so clients that failed together do not all retry at the same moment.
+public class RetryPolicy {
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private RetryPolicy(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoffMillis = builder.initialBackoffMillis;
+        this.maxBackoffMillis = builder.maxBackoffMillis;
+    }
+
+    public static class Builder {
+        private int maxAttempts = 5;
+        private long initialBackoffMillis = 50;
+        private long maxBackoffMillis = 2000;
+
+        public Builder setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; return this; }
+        public Builder setInitialBackoffMillis(long initialBackoffMillis) { this.initialBackoffMillis = initialBackoffMillis; return this; }
+        public Builder setMaxBackoffMillis(long maxBackoffMillis) { this.maxBackoffMillis = maxBackoffMillis; return this; }
+
+        public RetryPolicy build() {
+            if (maxAttempts < 1) throw new IllegalArgumentException("At least one attempt is required");
+            if (initialBackoffMillis < 0 || maxBackoffMillis < initialBackoffMillis) {
+                throw new IllegalArgumentException("Invalid backoff range " + initialBackoffMillis + "-" + maxBackoffMillis);
+            }
+            return new RetryPolicy(this);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // Single attempt, no retries
+    public static RetryPolicy none() {
+        return builder().setMaxAttempts(1).build();
+    }
+
+    public int getMaxAttempts() { return this.maxAttempts; }
+
+    // Wait before the given retry (1 for the first retry)
+    public long backoffMillis(int retry) {
+        long ceiling = initialBackoffMillis << Math.min(retry - 1, 30);
+        if (ceiling <= 0 || ceiling > maxBackoffMillis) ceiling = maxBackoffMillis;
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+}
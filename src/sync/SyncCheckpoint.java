@@ -0,0 +1,125 @@
+package sync;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import utils.LineTokenizer;
+
+// Progress of a sync that has not finished yet, kept in a file so an interrupted sync can resume.
+// Each acknowledged batch is appended and forced to disk:
+//   Op=Synced;ID=12;CRC32=1a2b3c4d
+//   Op=Deleted;ID=13
+// An item is skipped on resume only if its record still has the same checksum, so items edited since
+// are sent again. The file is deleted once a sync completes.
+public class SyncCheckpoint implements AutoCloseable {
+    private final Path file;
+    private final Map<Integer, Long> synced = new HashMap<>();
+    private final Set<Integer> deleted = new HashSet<>();
+    private final StringBuilder record = new StringBuilder(256);
+    private FileChannel channel;
+
+    private SyncCheckpoint(Path file) {
+        this.file = file;
+    }
+
+    // Loads the progress left by an interrupted sync, if any
+    public static SyncCheckpoint open(Path file) throws IOException {
+        SyncCheckpoint checkpoint = new SyncCheckpoint(file);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            LineTokenizer tokens = new LineTokenizer();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                tokens.reset(line);
+                // A line cut short by a crash is simply not counted as synced
+                Integer id = tokens.getInteger("id");
+                if (id == null) continue;
+                if (tokens.valueEqualsIgnoreCase(tokens.find("op"), "Synced") && tokens.has("crc32")) {
+                    try {
+                        checkpoint.synced.put(id, Long.parseLong(tokens.get("crc32"), 16));
+                    } catch (NumberFormatException e) {
+                        // Same as a cut line
+                    }
+                } else if (tokens.valueEqualsIgnoreCase(tokens.find("op"), "Deleted")) {
+                    checkpoint.deleted.add(id);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // No sync was interrupted
+        }
+        return checkpoint;
+    }
+
+    public int size() { return synced.size() + deleted.size(); }
+
+    public boolean isSynced(int id, String serialized) {
+        Long crc = synced.get(id);
+        return crc != null && crc == checksum(serialized);
+    }
+
+    public boolean isDeleted(int id) {
+        return deleted.contains(id);
+    }
+
+    public synchronized void recordSynced(List<Integer> ids, List<String> serialized) throws IOException {
+        record.setLength(0);
+        for (int i = 0; i < ids.size(); i++) {
+            record.append("Op=Synced;ID=").append(ids.get(i))
+                .append(";CRC32=").append(Long.toHexString(checksum(serialized.get(i)))).append('\n');
+        }
+        write();
+    }
+
+    public synchronized void recordDeleted(List<Integer> ids) throws IOException {
+        record.setLength(0);
+        for (Integer id : ids) {
+            record.append("Op=Deleted;ID=").append(id).append('\n');
+        }
+        write();
+    }
+
+    private void write() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(record.toString().getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        channel.force(false);
+    }
+
+    // The sync finished, nothing left to resume
+    public synchronized void complete() throws IOException {
+        close();
+        Files.deleteIfExists(file);
+        synced.clear();
+        deleted.clear();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private static long checksum(String serialized) {
+        CRC32 crc = new CRC32();
+        crc.update(serialized.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
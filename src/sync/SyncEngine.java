@@ -0,0 +1,15 @@
+package sync;
+
+import java.util.List;
+
+import entities.WorkItem;
+import entities.WorkItemIndex;
+
+public interface SyncEngine {
+    // Sends the given work items to the server and blocks until every batch is answered
+    SyncResult sync(List<? extends WorkItem> items) throws InterruptedException;
+
+    // Sends only what changed in the workspace since the last successful sync,
+    // and marks those changes as synced once the server has them all
+    SyncResult syncChanges(WorkItemIndex index) throws InterruptedException;
+}
@@ -0,0 +1,67 @@
+package sync;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counters for every sync run of an engine, updated from the request threads without locking.
+// Request latencies go into a histogram with power-of-two buckets in microseconds:
+// bucket b holds the requests that took [2^(b-1), 2^b) us, bucket 0 those under 1 us.
+public class SyncMetrics {
+    private static final int BUCKETS = 40;
+
+    private final LongAdder attempted = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicLongArray latencies = new AtomicLongArray(BUCKETS);
+
+    void recordAttempt(int items) { attempted.add(items); }
+    void recordSuccess(int items) { succeeded.add(items); }
+    void recordRetry(int items) { retried.add(items); }
+    void recordFailure(int items) { failed.add(items); }
+
+    void recordLatency(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        int bucket = Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+        latencies.incrementAndGet(bucket);
+    }
+
+    // Items sent, counting every attempt
+    public long getAttempted() { return attempted.sum(); }
+    public long getSucceeded() { return succeeded.sum(); }
+    // Items sent again after a failed attempt
+    public long getRetried() { return retried.sum(); }
+    // Items still not synced after the last attempt
+    public long getFailed() { return failed.sum(); }
+
+    public long getRequestCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += latencies.get(i);
+        }
+        return count;
+    }
+
+    // Upper bound in microseconds of the bucket holding the given percentile (0-100) of request latencies
+    public long getLatencyPercentileMicros(double percentile) {
+        long total = getRequestCount();
+        if (total == 0) return 0;
+
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += latencies.get(i);
+            if (seen >= Math.max(rank, 1)) return 1L << i;
+        }
+        return 1L << (BUCKETS - 1);
+    }
+
+    @Override
+    public String toString() {
+        return "attempted=" + getAttempted() + " succeeded=" + getSucceeded() + " retried=" + getRetried()
+            + " failed=" + getFailed() + " requests=" + getRequestCount()
+            + " p50<" + getLatencyPercentileMicros(50) / 1000.0 + "ms"
+            + " p99<" + getLatencyPercentileMicros(99) / 1000.0 + "ms";
+    }
+}
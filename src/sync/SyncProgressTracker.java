@@ -0,0 +1,71 @@
+package sync;
+
+import java.io.PrintStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Progress of one sync run. Request threads only add to a LongAdder, which does not contend between threads,
+// and a single reporter thread reads the sum and prints a line at most once per interval, and only when it moved.
+public class SyncProgressTracker implements AutoCloseable {
+    private final long total;
+    private final long intervalMillis;
+    private final PrintStream out;
+    private final LongAdder done = new LongAdder();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private final Thread reporter;
+    private long reported = -1; // Reporter thread only
+
+    public SyncProgressTracker(long total, long intervalMillis, PrintStream out) {
+        if (intervalMillis < 1) throw new IllegalArgumentException("Report interval must be positive");
+        this.total = total;
+        this.intervalMillis = intervalMillis;
+        this.out = out;
+        this.reporter = new Thread(this::report, "sync-progress");
+        this.reporter.setDaemon(true);
+    }
+
+    public SyncProgressTracker start() {
+        reporter.start();
+        return this;
+    }
+
+    // Called from the request threads once a batch is acknowledged
+    public void add(int items) {
+        done.add(items);
+    }
+
+    public long getDone() { return done.sum(); }
+
+    public long getTotal() { return this.total; }
+
+    private void report() {
+        try {
+            while (!stopped.await(intervalMillis, TimeUnit.MILLISECONDS)) {
+                print();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void print() {
+        long current = done.sum();
+        if (current == reported) return;
+        reported = current;
+        int percent = total == 0 ? 100 : (int) (current * 100 / total);
+        out.println("Progress: " + percent + "% (" + current + "/" + total + ")");
+    }
+
+    // Stops the reporter and prints the final count
+    @Override
+    public void close() {
+        stopped.countDown();
+        try {
+            reporter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        print();
+    }
+}
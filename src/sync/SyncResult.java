@@ -0,0 +1,69 @@
+package sync;
+
+import java.util.Collections;
+import java.util.List;
+
+// Outcome of one sync run
+public class SyncResult {
+    // Items sent in one wave: all pending items at one depth, or the deletes
+    public static class Wave {
+        private final int depth; // -1 for the deletes
+        private final int items;
+        private final long elapsedNanos;
+
+        public Wave(int depth, int items, long elapsedNanos) {
+            this.depth = depth;
+            this.items = items;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getDepth() { return this.depth; }
+        public int getItems() { return this.items; }
+        public long getElapsedMillis() { return this.elapsedNanos / 1_000_000; }
+
+        @Override
+        public String toString() {
+            return (depth < 0 ? "deletes" : "depth " + depth) + ": " + items + " items in " + getElapsedMillis() + " ms";
+        }
+    }
+
+    private final int items;
+    private final int syncedItems;
+    private final int deletes;
+    private final int syncedDeletes;
+    private final int batches;
+    private final int failedBatches;
+    private final long elapsedNanos;
+    private final List<Wave> waves;
+
+    public SyncResult(int items, int syncedItems, int batches, int failedBatches, long elapsedNanos) {
+        this(items, syncedItems, 0, 0, batches, failedBatches, elapsedNanos, Collections.emptyList());
+    }
+
+    public SyncResult(int items, int syncedItems, int deletes, int syncedDeletes, int batches, int failedBatches,
+                      long elapsedNanos, List<Wave> waves) {
+        this.items = items;
+        this.syncedItems = syncedItems;
+        this.deletes = deletes;
+        this.syncedDeletes = syncedDeletes;
+        this.batches = batches;
+        this.failedBatches = failedBatches;
+        this.elapsedNanos = elapsedNanos;
+        this.waves = Collections.unmodifiableList(waves);
+    }
+
+    public int getItems() { return this.items; }
+    public int getSyncedItems() { return this.syncedItems; }
+    public int getDeletes() { return this.deletes; }
+    public int getSyncedDeletes() { return this.syncedDeletes; }
+    public int getBatches() { return this.batches; }
+    public int getFailedBatches() { return this.failedBatches; }
+    public long getElapsedMillis() { return this.elapsedNanos / 1_000_000; }
+    public List<Wave> getWaves() { return this.waves; }
+
+    public boolean isComplete() { return this.syncedItems == this.items && this.syncedDeletes == this.deletes; }
+
+    public double getItemsPerSecond() {
+        return elapsedNanos == 0 ? 0 : syncedItems * 1_000_000_000.0 / elapsedNanos;
+    }
+}
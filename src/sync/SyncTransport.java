@@ -0,0 +1,16 @@
+package sync;
+
+import java.io.IOException;
+import java.util.List;
+
+// Service provider interface for the server side of a sync.
+// Records are work items in the data.txt line format; send must be safe to call from several threads at once.
+public interface SyncTransport {
+    // Sends one batch and returns once the server has acknowledged it
+    void send(List<String> records) throws IOException;
+
+    // Removes the work items with the given IDs on the server
+    default void delete(List<Integer> ids) throws IOException {
+        throw new IOException("Deletes are not supported by " + getClass().getSimpleName());
+    }
+}
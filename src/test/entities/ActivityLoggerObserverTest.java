@@ -0,0 +1,162 @@
+package test.entities;
+
+import enums.WorkItemStatus;
+import org.junit.Test;
+
+import entities.ActivityLoggerObserver;
+import entities.Task;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ActivityLoggerObserverTest {
+    @Test
+    public void testAsyncLoggerDrainsEveryEventInOrderOnClose() throws IOException {
+        Path log = Files.createTempFile("activity", ".log");
+        try {
+            // Small queue and buffer so producers block and the writer flushes several times
+            ActivityLoggerObserver observer = ActivityLoggerObserver.builder()
+                    .setLogFile(log)
+                    .setAsync(true)
+                    .setCapacity(16)
+                    .setBufferSize(256)
+                    .setFlushIntervalMillis(10)
+                    .setFsyncPolicy(ActivityLoggerObserver.FsyncPolicy.ON_CLOSE)
+                    .build();
+
+            for (int i = 1; i <= 1000; i++) {
+                Task task = Task.builder().setName("Task " + i).setStatus(WorkItemStatus.NOT_STARTED).build();
+                task.setID(i);
+                observer.onWorkItemDeleted(task);
+            }
+            observer.close();
+
+            List<String> lines = Files.readAllLines(log, StandardCharsets.UTF_8);
+            assertEquals(1000, lines.size());
+            for (int i = 0; i < lines.size(); i++) {
+                assertTrue(lines.get(i).endsWith("Deleted: Task ID=" + (i + 1) + " Name=Task " + (i + 1)));
+            }
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+
+    @Test
+    public void testCloseFromShutdownThreadWritesQueuedEvents() throws Exception {
+        Path log = Files.createTempFile("activity", ".log");
+        try {
+            // Nothing is flushed on the interval, so every line is still queued or buffered when close() runs
+            ActivityLoggerObserver observer = ActivityLoggerObserver.builder()
+                    .setLogFile(log)
+                    .setAsync(true)
+                    .setFlushIntervalMillis(60_000)
+                    .build();
+            for (int i = 1; i <= 100; i++) {
+                observer.onWorkItemAdded(task(i, "Task " + i));
+            }
+
+            // As from a shutdown hook and the end of main at the same time
+            Thread hook = new Thread(observer::close);
+            hook.start();
+            observer.close();
+            hook.join();
+
+            List<String> lines = Files.readAllLines(log, StandardCharsets.UTF_8);
+            assertEquals(100, lines.size());
+            for (int i = 0; i < lines.size(); i++) {
+                assertTrue(lines.get(i).endsWith("Added: Task ID=" + (i + 1) + " Name=Task " + (i + 1)));
+            }
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+
+    @Test
+    public void testEventsRacingCloseAreAllWritten() throws Exception {
+        Path log = Files.createTempFile("activity", ".log");
+        try {
+            for (int round = 0; round < 20; round++) {
+                Files.write(log, new byte[0]);
+                // Tiny queue so producers are often blocked on a full queue when close() runs
+                ActivityLoggerObserver observer = ActivityLoggerObserver.builder()
+                        .setLogFile(log)
+                        .setAsync(true)
+                        .setCapacity(2)
+                        .setFlushIntervalMillis(1)
+                        .build();
+
+                Thread[] producers = new Thread[4];
+                for (int p = 0; p < producers.length; p++) {
+                    int first = p * 100;
+                    producers[p] = new Thread(() -> {
+                        for (int i = 1; i <= 100; i++) {
+                            observer.onWorkItemAdded(task(first + i, "Task"));
+                        }
+                    });
+                    producers[p].start();
+                }
+                observer.close();
+                for (Thread producer : producers) {
+                    producer.join(10_000);
+                    assertFalse("Producer blocked after close", producer.isAlive());
+                }
+
+                assertEquals(400, Files.readAllLines(log, StandardCharsets.UTF_8).size());
+            }
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+
+    @Test
+    public void testEventsAfterCloseAreWrittenDirectly() throws IOException {
+        Path log = Files.createTempFile("activity", ".log");
+        try {
+            ActivityLoggerObserver observer = ActivityLoggerObserver.builder().setLogFile(log).setAsync(true).build();
+            observer.close();
+
+            Task task = Task.builder().setName("Late").setStatus(WorkItemStatus.NOT_STARTED).build();
+            observer.onWorkItemAdded(task);
+
+            List<String> lines = Files.readAllLines(log, StandardCharsets.UTF_8);
+            assertEquals(1, lines.size());
+            assertTrue(lines.get(0).endsWith("Added: Task ID=0 Name=Late"));
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+
+    @Test
+    public void testBatchEventsWriteOneRecordEach() throws IOException {
+        Path log = Files.createTempFile("activity", ".log");
+        try {
+            ActivityLoggerObserver observer = ActivityLoggerObserver.builder().setLogFile(log).setAsync(true).build();
+
+            Task parent = task(10, "Parent");
+            for (int i = 11; i <= 20; i++) {
+                parent.getChildren().add(task(i, "Child"));
+            }
+            observer.onWorkItemsAdded(parent.getChildren());
+            observer.onSubtreeDeleted(parent, 11);
+            observer.close();
+
+            List<String> lines = Files.readAllLines(log, StandardCharsets.UTF_8);
+            assertEquals(2, lines.size());
+            assertTrue(lines.get(0).endsWith("Added: 10 work items IDs=11-20"));
+            assertTrue(lines.get(1).endsWith("Deleted: Task ID=10 Name=Parent with 10 descendants"));
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+
+    private static Task task(int id, String name) {
+        Task task = Task.builder().setName(name).setStatus(WorkItemStatus.NOT_STARTED).build();
+        task.setID(id);
+        return task;
+    }
+}
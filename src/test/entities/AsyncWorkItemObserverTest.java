@@ -0,0 +1,172 @@
+package test.entities;
+
+import enums.WorkItemStatus;
+import org.junit.Test;
+
+import entities.AsyncWorkItemObserver;
+import entities.Feature;
+import entities.Task;
+import entities.WorkItem;
+import entities.WorkItemObserver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class AsyncWorkItemObserverTest {
+    private static Task task(int id) {
+        Task task = Task.builder().setName("Task " + id).setStatus(WorkItemStatus.NOT_STARTED).build();
+        task.setID(id);
+        return task;
+    }
+
+    @Test
+    public void testSlowObserverDoesNotBlockNotifications() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        WorkItemObserver slow = new WorkItemObserver() {
+            @Override
+            public void onWorkItemAdded(WorkItem item) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                received.add(item.getID());
+            }
+
+            @Override
+            public void onWorkItemDeleted(WorkItem item) { }
+        };
+
+        AsyncWorkItemObserver async = new AsyncWorkItemObserver(slow);
+        WorkItem.addObserver(async);
+        try {
+            // Returns although the observer is blocked
+            for (int i = 1; i <= 100; i++) {
+                WorkItem.notifyWorkItemAdded(task(i));
+            }
+            assertTrue(received.isEmpty());
+        } finally {
+            release.countDown();
+            WorkItem.removeObserver(slow); // Matches the async wrapper
+            async.close();
+        }
+
+        assertEquals(100, received.size());
+        for (int i = 0; i < received.size(); i++) {
+            assertEquals(Integer.valueOf(i + 1), received.get(i));
+        }
+    }
+
+    @Test
+    public void testRemovingWrappedObserverDrainsAndStopsWrapper() throws InterruptedException {
+        AtomicInteger received = new AtomicInteger();
+        WorkItemObserver counter = new WorkItemObserver() {
+            @Override
+            public void onWorkItemAdded(WorkItem item) {
+                try {
+                    Thread.sleep(1); // Still busy when the observer is removed
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                received.incrementAndGet();
+            }
+
+            @Override
+            public void onWorkItemDeleted(WorkItem item) { }
+        };
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        WorkItem.addObserver(new AsyncWorkItemObserver(counter, executor));
+        for (int i = 1; i <= 50; i++) {
+            WorkItem.notifyWorkItemAdded(task(i));
+        }
+        WorkItem.removeObserver(counter);
+
+        // Everything queued was delivered before removeObserver returned, and the executor is gone
+        assertEquals(50, received.get());
+        assertTrue(executor.isTerminated());
+
+        WorkItem.notifyWorkItemAdded(task(51));
+        Thread.sleep(20);
+        assertEquals(50, received.get());
+    }
+
+    @Test
+    public void testConcurrentRegistrationWhileNotifying() throws InterruptedException {
+        AtomicInteger notified = new AtomicInteger();
+        WorkItemObserver counter = new WorkItemObserver() {
+            @Override
+            public void onWorkItemAdded(WorkItem item) { notified.incrementAndGet(); }
+
+            @Override
+            public void onWorkItemDeleted(WorkItem item) { }
+        };
+        WorkItem.addObserver(counter);
+
+        Thread[] registrars = new Thread[4];
+        for (int t = 0; t < registrars.length; t++) {
+            registrars[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    WorkItemObserver temporary = new WorkItemObserver() {
+                        @Override
+                        public void onWorkItemAdded(WorkItem item) { }
+
+                        @Override
+                        public void onWorkItemDeleted(WorkItem item) { }
+                    };
+                    WorkItem.addObserver(temporary);
+                    WorkItem.removeObserver(temporary);
+                }
+            });
+            registrars[t].start();
+        }
+
+        try {
+            Task task = task(1);
+            for (int i = 0; i < 10000; i++) {
+                WorkItem.notifyWorkItemAdded(task);
+            }
+            for (Thread registrar : registrars) {
+                registrar.join(TimeUnit.SECONDS.toMillis(10));
+            }
+        } finally {
+            WorkItem.removeObserver(counter);
+        }
+
+        assertEquals(10000, notified.get());
+        // Only the counter was left registered, so nothing else is notified now
+        WorkItem.notifyWorkItemAdded(task(2));
+        assertEquals(10000, notified.get());
+    }
+
+    @Test
+    public void testDefaultBatchCallbacksFallBackToPerItemCallbacks() {
+        List<String> events = new ArrayList<>();
+        WorkItemObserver perItem = new WorkItemObserver() {
+            @Override
+            public void onWorkItemAdded(WorkItem item) { events.add("added " + item.getID()); }
+
+            @Override
+            public void onWorkItemDeleted(WorkItem item) { events.add("deleted " + item.getID()); }
+        };
+
+        perItem.onWorkItemsAdded(Arrays.asList(task(1), task(2)));
+        // Feature 3 with task 4 below it: children are reported before their parent
+        Feature feature = Feature.builder().setName("Feature").setStatus(WorkItemStatus.NOT_STARTED).build();
+        feature.setID(3);
+        feature.addChild(task(4));
+        perItem.onSubtreeDeleted(feature, 2);
+
+        assertEquals(Arrays.asList("added 1", "added 2", "deleted 4", "deleted 3"), events);
+    }
+}
@@ -0,0 +1,158 @@
+package test.entities;
+
+import enums.PhaseType;
+import enums.WorkItemStatus;
+import org.junit.Test;
+
+import entities.Epic;
+import entities.HierarchyRenderer;
+import entities.Phase;
+import entities.Task;
+import entities.WorkItem;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HierarchyRendererTest {
+    private static final String NL = System.lineSeparator();
+
+    private static Epic sampleEpic() {
+        Epic epic = Epic.builder().setName("Epic").setStatus(WorkItemStatus.IN_PROGRESS).setDescription("Root").build();
+        epic.setID(1);
+        Phase phase = Phase.builder().setName("Phase").setStatus(WorkItemStatus.NOT_STARTED).setPhaseType(PhaseType.DEVELOPMENT)
+                .setStartDate(LocalDate.of(2025, 1, 1)).build();
+        phase.setID(2);
+        epic.addChild(phase);
+
+        // Added out of ID order, rendered in ID order
+        Task later = Task.builder().setName("Later").setStatus(WorkItemStatus.COMPLETED).build();
+        later.setID(4);
+        Task earlier = Task.builder().setName("Earlier").setStatus(WorkItemStatus.COMPLETED).setEstimatedHours(2.5).build();
+        earlier.setID(3);
+        phase.addChild(later);
+        phase.addChild(earlier);
+        return epic;
+    }
+
+    @Test
+    public void testRenderWithoutDetails() {
+        StringBuilder out = new StringBuilder();
+        HierarchyRenderer renderer = new HierarchyRenderer(out);
+        renderer.render(sampleEpic(), 0, false);
+        renderer.flush();
+
+        assertEquals("[1] EPIC: Epic (In progress)" + NL
+                + "---- [2] PHASE (Development): Phase (Not started)" + NL
+                + "-------- [3] TASK: Earlier (Completed)" + NL
+                + "-------- [4] TASK: Later (Completed)" + NL, out.toString());
+    }
+
+    @Test
+    public void testRenderWithDetails() {
+        StringBuilder out = new StringBuilder();
+        HierarchyRenderer renderer = new HierarchyRenderer(out);
+        renderer.render(sampleEpic(), 0, true);
+        renderer.flush();
+
+        assertEquals("[1] EPIC: Epic (In progress)" + NL
+                + "Start date: --, End date: --" + NL
+                + "Description: Root" + NL + NL
+                + "---- [2] PHASE (Development): Phase (Not started)" + NL
+                + "     Start date: 2025-01-01, End date: --" + NL
+                + "     Phase Type: Development" + NL + NL
+                + "-------- [3] TASK: Earlier (Completed)" + NL
+                + "         Due date: --, Estimated hours: 2.5" + NL
+                + "         Description: --" + NL + NL
+                + "-------- [4] TASK: Later (Completed)" + NL
+                + "         Due date: --, Estimated hours: --" + NL
+                + "         Description: --" + NL + NL, out.toString());
+    }
+
+    @Test
+    public void testSmallBufferGivesSameOutput() {
+        Epic epic = sampleEpic();
+        StringBuilder large = new StringBuilder();
+        HierarchyRenderer renderer = new HierarchyRenderer(large);
+        renderer.render(epic, 0, true);
+        renderer.flush();
+
+        // Drained after nearly every line
+        StringBuilder small = new StringBuilder();
+        renderer = new HierarchyRenderer(small, 16);
+        renderer.render(epic, 0, true);
+        renderer.flush();
+
+        assertEquals(large.toString(), small.toString());
+    }
+
+    @Test
+    public void testPagesJoinUpToFullListing() {
+        Epic first = sampleEpic();
+        Epic second = Epic.builder().setName("Second").setStatus(WorkItemStatus.NOT_STARTED).build();
+        second.setID(5);
+        List<Epic> roots = List.of(first, second);
+
+        StringBuilder full = new StringBuilder();
+        HierarchyRenderer renderer = new HierarchyRenderer(full);
+        assertNull(renderer.renderPage(roots, null, false));
+        renderer.flush();
+
+        // Pages of 2 items: [1, 2], [3, 4], [5]
+        StringBuilder paged = new StringBuilder();
+        WorkItem from = null;
+        int pages = 0;
+        do {
+            renderer = HierarchyRenderer.builder().setOutput(paged).setPageSize(2).build();
+            from = renderer.renderPage(roots, from, false);
+            renderer.flush();
+            pages++;
+        } while (from != null);
+
+        assertEquals(3, pages);
+        assertEquals(full.toString(), paged.toString());
+    }
+
+    @Test
+    public void testPageStopsAtPageSize() {
+        StringBuilder out = new StringBuilder();
+        HierarchyRenderer renderer = HierarchyRenderer.builder().setOutput(out).setPageSize(3).build();
+        assertFalse(renderer.render(sampleEpic(), 0, false));
+        renderer.flush();
+
+        assertEquals(3, renderer.getRendered());
+        assertEquals(4, renderer.getNextItem().getID());
+        assertEquals(3, out.toString().split(NL).length);
+    }
+
+    @Test
+    public void testMaxDepthCollapsesChildren() {
+        StringBuilder out = new StringBuilder();
+        HierarchyRenderer renderer = HierarchyRenderer.builder().setOutput(out).setMaxDepth(1).build();
+        assertTrue(renderer.render(sampleEpic(), 0, false));
+        renderer.flush();
+
+        assertEquals("[1] EPIC: Epic (In progress)" + NL
+                + "---- [2] PHASE (Development): Phase (Not started)" + NL
+                + "-------- (2 children collapsed)" + NL, out.toString());
+    }
+
+    @Test
+    public void testPageFromBelowMaxDepthStartsAtCollapsedAncestor() {
+        Epic epic = sampleEpic();
+        Epic second = Epic.builder().setName("Second").setStatus(WorkItemStatus.NOT_STARTED).build();
+        second.setID(5);
+        WorkItem later = epic.getChildren().get(0).getChildren().get(1);
+
+        StringBuilder out = new StringBuilder();
+        HierarchyRenderer renderer = HierarchyRenderer.builder().setOutput(out).setMaxDepth(1).build();
+        assertNull(renderer.renderPage(List.of(epic, second), later, false));
+        renderer.flush();
+
+        // Task 4 is at depth 2, so the page starts at its phase, collapsed, and nothing below depth 1 is shown
+        assertEquals("---- [2] PHASE (Development): Phase (Not started)" + NL
+                + "-------- (2 children collapsed)" + NL
+                + "[5] EPIC: Second (Not started)" + NL, out.toString());
+    }
+}
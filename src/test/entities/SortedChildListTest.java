@@ -0,0 +1,76 @@
+package test.entities;
+
+import enums.WorkItemStatus;
+import org.junit.Test;
+
+import entities.Feature;
+import entities.SortedChildList;
+import entities.Task;
+import entities.WorkItem;
+
+import static org.junit.Assert.*;
+
+public class SortedChildListTest {
+    private static Task task(int id) {
+        Task task = Task.builder().setName("Task " + id).setStatus(WorkItemStatus.NOT_STARTED).build();
+        task.setID(id);
+        return task;
+    }
+
+    private static int[] ids(SortedChildList children) {
+        int[] ids = new int[children.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = children.get(i).getID();
+        }
+        return ids;
+    }
+
+    @Test
+    public void testAddKeepsIdOrder() {
+        SortedChildList children = new SortedChildList();
+        for (int id : new int[] {5, 1, 9, 3, 7}) {
+            children.add(task(id));
+        }
+        assertArrayEquals(new int[] {1, 3, 5, 7, 9}, ids(children));
+        assertEquals(9, children.findById(9).getID());
+        assertNull(children.findById(4));
+    }
+
+    @Test
+    public void testRemoveByIdentity() {
+        SortedChildList children = new SortedChildList();
+        Task first = task(2);
+        Task second = task(2); // Same ID, different item
+        children.add(task(1));
+        children.add(first);
+        children.add(second);
+        children.add(task(3));
+
+        assertEquals(1, children.indexOf(first));
+        assertEquals(2, children.indexOf(second));
+        assertTrue(children.remove(second));
+        assertFalse(children.remove(second));
+        assertSame(first, children.get(1));
+        assertArrayEquals(new int[] {1, 2, 3}, ids(children));
+    }
+
+    @Test
+    public void testSetIdMovesChild() {
+        Feature feature = Feature.builder().setName("Feature").setStatus(WorkItemStatus.NOT_STARTED).build();
+        Task moved = task(1);
+        feature.addChild(moved);
+        feature.addChild(task(2));
+        feature.addChild(task(3));
+
+        moved.setID(10);
+        assertArrayEquals(new int[] {2, 3, 10}, ids(feature.getChildren()));
+        assertSame(moved, feature.getChildren().findById(10));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testPositionalAddNotSupported() {
+        SortedChildList children = new SortedChildList();
+        WorkItem item = task(1);
+        children.add(0, item);
+    }
+}
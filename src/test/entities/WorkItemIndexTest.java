@@ -0,0 +1,119 @@
+package test.entities;
+
+import enums.WorkItemStatus;
+import org.junit.Test;
+
+import entities.Epic;
+import entities.Feature;
+import entities.Task;
+import entities.WorkItem;
+import entities.WorkItemIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class WorkItemIndexTest {
+    private final List<WorkItem> roots = new ArrayList<>();
+    private final WorkItemIndex index = new WorkItemIndex(roots);
+
+    private static <T extends WorkItem> T withId(T item, int id) {
+        item.setID(id);
+        return item;
+    }
+
+    private static Epic epic(int id) {
+        return withId(Epic.builder().setName("Epic " + id).setStatus(WorkItemStatus.NOT_STARTED).build(), id);
+    }
+
+    private static Feature feature(int id) {
+        return withId(Feature.builder().setName("Feature " + id).setStatus(WorkItemStatus.NOT_STARTED).build(), id);
+    }
+
+    private static Task task(int id) {
+        return withId(Task.builder().setName("Task " + id).setStatus(WorkItemStatus.NOT_STARTED).build(), id);
+    }
+
+    // The index must return the very object found by walking the hierarchy
+    private void assertConsistent(int id) {
+        assertSame(WorkItem.findById(roots, id), index.findById(id));
+    }
+
+    @Test
+    public void testAddChildRegistersSubtree() {
+        Epic epic = epic(1);
+        Feature feature = feature(2);
+        feature.addChild(task(3)); // Added before the feature joins the workspace
+        index.addRoot(epic);
+        epic.addChild(feature);
+        feature.addChild(task(4));
+
+        assertEquals(4, index.size());
+        for (int id = 1; id <= 4; id++) {
+            assertConsistent(id);
+        }
+    }
+
+    @Test
+    public void testRemoveChildUnregistersSubtree() {
+        Epic epic = epic(1);
+        Feature feature = feature(2);
+        index.addRoot(epic);
+        epic.addChild(feature);
+        feature.addChild(task(3));
+        index.clearChanges(WorkItem.currentVersion());
+
+        assertTrue(index.remove(feature));
+        assertEquals(1, index.size());
+        assertNull(index.findById(2));
+        assertNull(index.findById(3));
+        assertConsistent(3);
+        assertEquals(List.of(2, 3), index.getDeletedIds());
+
+        // A detached item is no longer tracked
+        feature.setName("Changed");
+        assertTrue(index.getDirtyItems().isEmpty());
+    }
+
+    @Test
+    public void testRemoveRootUnregistersSubtree() {
+        Epic epic = epic(1);
+        index.addRoot(epic);
+        epic.addChild(feature(2));
+
+        assertTrue(index.remove(epic));
+        assertTrue(roots.isEmpty());
+        assertEquals(0, index.size());
+        assertFalse(index.remove(epic));
+    }
+
+    @Test
+    public void testSetIdReindexes() {
+        Epic epic = epic(1);
+        Feature feature = feature(2);
+        index.addRoot(epic);
+        epic.addChild(feature);
+        index.clearChanges(WorkItem.currentVersion());
+
+        feature.setID(20);
+        assertNull(index.findById(2));
+        assertSame(feature, index.findById(20));
+        assertConsistent(20);
+        assertEquals(List.of(2), index.getDeletedIds());
+        assertEquals(List.of(feature), index.getDirtyItems());
+    }
+
+    @Test
+    public void testReAddedItemIsNotDeleted() {
+        Epic epic = epic(1);
+        Feature feature = feature(2);
+        index.addRoot(epic);
+        epic.addChild(feature);
+        index.remove(feature);
+        epic.addChild(feature);
+
+        assertTrue(index.getDeletedIds().isEmpty());
+        assertSame(feature, index.findById(2));
+    }
+}
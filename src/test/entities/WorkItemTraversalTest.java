@@ -0,0 +1,117 @@
+package test.entities;
+
+import enums.WorkItemStatus;
+import org.junit.Test;
+
+import entities.Epic;
+import entities.Feature;
+import entities.Task;
+import entities.WorkItem;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+
+public class WorkItemTraversalTest {
+    private static Feature feature(int id) {
+        Feature feature = Feature.builder().setName("Feature " + id).setStatus(WorkItemStatus.NOT_STARTED).build();
+        feature.setID(id);
+        return feature;
+    }
+
+    private static Task task(int id) {
+        Task task = Task.builder().setName("Task " + id).setStatus(WorkItemStatus.NOT_STARTED).build();
+        task.setID(id);
+        return task;
+    }
+
+    // 1 -> (2 -> (3, 4), 5 -> (6), 7)
+    private static Epic sampleTree() {
+        Epic epic = Epic.builder().setName("Epic").setStatus(WorkItemStatus.NOT_STARTED).build();
+        epic.setID(1);
+        Feature first = feature(2);
+        first.addChild(task(4));
+        first.addChild(task(3));
+        Feature second = feature(5);
+        second.addChild(task(6));
+        epic.addChild(task(7));
+        epic.addChild(second);
+        epic.addChild(first);
+        return epic;
+    }
+
+    private static List<Integer> idsOf(Iterable<WorkItem> items) {
+        List<Integer> ids = new ArrayList<>();
+        for (WorkItem wi : items) {
+            ids.add(wi.getID());
+        }
+        return ids;
+    }
+
+    @Test
+    public void testIteratorAndForEachVisitDepthFirst() {
+        Epic epic = sampleTree();
+        List<Integer> expected = List.of(1, 2, 3, 4, 5, 6, 7);
+        assertEquals(expected, idsOf(epic));
+
+        List<Integer> visited = new ArrayList<>();
+        epic.forEachDescendant(wi -> visited.add(wi.getID()));
+        assertEquals(expected, visited);
+
+        // A subtree walk stops at the subtree
+        List<Integer> subtree = new ArrayList<>();
+        epic.getChildren().findById(2).forEachDescendant(wi -> subtree.add(wi.getID()));
+        assertEquals(List.of(2, 3, 4), subtree);
+    }
+
+    @Test
+    public void testForEachDescendantWhileStopsEarly() {
+        List<Integer> visited = new ArrayList<>();
+        boolean completed = sampleTree().forEachDescendantWhile(wi -> {
+            visited.add(wi.getID());
+            return wi.getID() != 4;
+        });
+        assertFalse(completed);
+        assertEquals(List.of(1, 2, 3, 4), visited);
+        assertTrue(sampleTree().forEachDescendantWhile(wi -> true));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testIteratorPastEnd() {
+        Iterator<WorkItem> iterator = task(1).iterator();
+        iterator.next();
+        iterator.next();
+    }
+
+    @Test
+    public void testDeepChainNeedsNoRecursion() {
+        Feature root = feature(1);
+        Feature current = root;
+        for (int id = 2; id <= 100_000; id++) {
+            Feature child = feature(id);
+            current.addChild(child);
+            current = child;
+        }
+
+        int[] count = new int[1];
+        root.forEachDescendant(wi -> count[0]++);
+        assertEquals(100_000, count[0]);
+        assertEquals(100_000, idsOf(root).size());
+        assertSame(current, WorkItem.findById(List.of(root), 100_000));
+        assertEquals(100_001, WorkItem.getNextID(List.of(root)));
+    }
+
+    @Test
+    public void testWouldCreateCycle() {
+        Epic epic = sampleTree();
+        WorkItem first = epic.getChildren().findById(2);
+        WorkItem leaf = first.getChildren().findById(3);
+        assertTrue(WorkItem.wouldCreateCycle(leaf, epic));
+        assertTrue(WorkItem.wouldCreateCycle(first, first));
+        assertFalse(WorkItem.wouldCreateCycle(first, epic.getChildren().findById(5)));
+        assertFalse(WorkItem.wouldCreateCycle(null, epic));
+    }
+}
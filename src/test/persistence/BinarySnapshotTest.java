@@ -0,0 +1,201 @@
+package test.persistence;
+
+import enums.PhaseType;
+import enums.WorkItemStatus;
+import org.junit.Test;
+
+import entities.*;
+import persistence.BinarySnapshot;
+import persistence.TextSnapshot;
+import persistence.WorkItemLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BinarySnapshotTest {
+    @Test
+    public void testTextAndBinaryConvertBothWays() throws IOException {
+        Path dir = Files.createTempDirectory("snapshots");
+        try {
+            Path text = dir.resolve("data.txt");
+            Path binary = dir.resolve("data.bin");
+            Path back = dir.resolve("back.txt");
+
+            TextSnapshot.write(text, sampleWorkspace(3, 5), 1 << 16);
+            BinarySnapshot.convertTextToBinary(text, binary);
+            BinarySnapshot.convertBinaryToText(binary, back);
+
+            assertEquals(Files.readAllLines(text, StandardCharsets.UTF_8), Files.readAllLines(back, StandardCharsets.UTF_8));
+            assertTrue(Files.size(binary) < Files.size(text));
+        } finally {
+            deleteAll(dir);
+        }
+    }
+
+    @Test
+    public void testConversionKeepsEpicUnderAnotherItem() throws IOException {
+        // Epics are written as roots in both formats, even when one was added under another item
+        List<WorkItem> roots = sampleWorkspace(2, 3);
+        Epic nested = Epic.builder().setName("Nested epic").setDescription("Under an epic").build();
+        nested.setID(100);
+        Task task = Task.builder().setName("Under the nested epic").build();
+        task.setID(101);
+        nested.addChild(task);
+        roots.get(0).addChild(nested);
+
+        assertConvertsBothWays(roots);
+    }
+
+    @Test
+    public void testRepeatedIdSkipsWholeSubtree() throws IOException {
+        List<WorkItem> roots = sampleWorkspace(1, 3);
+        // Same ID as the phase, with a child whose own ID is new
+        Feature repeated = Feature.builder().setName("Repeated").build();
+        repeated.setID(2);
+        Task child = Task.builder().setName("Child of repeated").build();
+        child.setID(50);
+        repeated.addChild(child);
+        roots.add(repeated);
+
+        // Like data.txt, the repeated item and its subtree are left out
+        List<WorkItem> parsed = roundTrip(roots);
+        assertEquals(1, parsed.size());
+        int[] count = { 0 };
+        parsed.get(0).forEachDescendant(wi -> count[0]++);
+        assertEquals(4, count[0]);
+        assertConvertsBothWays(roots);
+    }
+
+    @Test
+    public void testOptionalFieldsAndUnicodeSurviveRoundTrip() throws IOException {
+        Epic epic = Epic.builder().setName("\u00c9pop\u00e9e \u2713").setStatus(WorkItemStatus.COMPLETED).build();
+        epic.setID(1);
+        Phase phase = Phase.builder().setName("No type").setStartDate(LocalDate.of(1960, 1, 1)).build();
+        phase.setID(2);
+        epic.addChild(phase);
+
+        List<WorkItem> roots = roundTrip(List.of(epic));
+
+        assertEquals(1, roots.size());
+        Epic parsed = (Epic) roots.get(0);
+        assertEquals("\u00c9pop\u00e9e \u2713", parsed.getName());
+        assertNull(parsed.getDescription());
+        assertNull(parsed.getStartDate());
+        Phase parsedPhase = (Phase) parsed.getChildren().get(0);
+        assertNull(parsedPhase.getPhaseType());
+        assertEquals(LocalDate.of(1960, 1, 1), parsedPhase.getStartDate());
+    }
+
+    @Test(expected = IOException.class)
+    public void testCorruptedSnapshotIsRejected() throws IOException {
+        Path file = Files.createTempFile("data", ".bin");
+        try {
+            BinarySnapshot.write(file, sampleWorkspace(1, 3));
+            byte[] bytes = Files.readAllBytes(file);
+            bytes[bytes.length / 2] ^= 0x1;
+            Files.write(file, bytes);
+
+            BinarySnapshot.read(file, new WorkItemLoader());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Large enough to fill the write buffer many times; load timing for a million items is in LargeLoadBenchmark
+    @Test
+    public void testLargeWorkspaceRoundTrip() throws IOException {
+        Path file = Files.createTempFile("data", ".bin");
+        try {
+            BinarySnapshot.write(file, sampleWorkspace(100, 199));
+
+            WorkItemLoader loader = new WorkItemLoader();
+            BinarySnapshot.read(file, loader);
+            List<WorkItem> roots = loader.link();
+
+            assertEquals(100, roots.size());
+            assertEquals(20_000, loader.size());
+            assertEquals(20_000, loader.getMaxId());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Text to binary and back gives the same data.txt as writing the workspace directly
+    private static void assertConvertsBothWays(List<WorkItem> roots) throws IOException {
+        Path dir = Files.createTempDirectory("snapshots");
+        try {
+            Path text = dir.resolve("data.txt");
+            Path binary = dir.resolve("data.bin");
+            Path back = dir.resolve("back.txt");
+
+            TextSnapshot.write(text, roots, 1 << 16);
+            BinarySnapshot.convertTextToBinary(text, binary);
+            BinarySnapshot.convertBinaryToText(binary, back);
+
+            assertEquals(Files.readAllLines(text, StandardCharsets.UTF_8), Files.readAllLines(back, StandardCharsets.UTF_8));
+        } finally {
+            deleteAll(dir);
+        }
+    }
+
+    private static List<WorkItem> roundTrip(List<WorkItem> roots) throws IOException {
+        Path file = Files.createTempFile("data", ".bin");
+        try {
+            BinarySnapshot.write(file, roots);
+            WorkItemLoader loader = new WorkItemLoader();
+            BinarySnapshot.read(file, loader);
+            return loader.link();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Each epic has a phase, features and milestones under it, and tasks under the features
+    private static List<WorkItem> sampleWorkspace(int epics, int childrenPerEpic) {
+        List<WorkItem> roots = new ArrayList<>();
+        int id = 0;
+        for (int e = 0; e < epics; e++) {
+            Epic epic = Epic.builder().setName("Epic " + e).setDescription("Generated").setStartDate(LocalDate.of(2025, 1, 1)).build();
+            epic.setID(++id);
+            roots.add(epic);
+
+            WorkItem feature = null;
+            for (int c = 0; c < childrenPerEpic; c++) {
+                WorkItem child;
+                if (c == 0) {
+                    child = Phase.builder().setName("Phase").setPhaseType(PhaseType.DEVELOPMENT).setEndDate(LocalDate.of(2025, 3, 1)).build();
+                } else if (c % 10 == 1) {
+                    child = Feature.builder().setName("Feature " + c).setStatus(WorkItemStatus.IN_PROGRESS).setEstimatedHours(12.5).build();
+                } else if (c % 10 == 5) {
+                    child = Milestone.builder().setName("Milestone " + c).setDueDate(LocalDate.of(2025, 2, 1)).build();
+                } else {
+                    child = Task.builder().setName("Task " + c).setDescription("Generated task").setEstimatedHours(2.0).build();
+                }
+                child.setID(++id);
+                if (child instanceof Task && feature != null) {
+                    feature.addChild(child);
+                } else {
+                    epic.addChild(child);
+                }
+                if (child instanceof Feature) feature = child;
+            }
+        }
+        return roots;
+    }
+
+    private static void deleteAll(Path dir) throws IOException {
+        try (var files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+}
@@ -0,0 +1,80 @@
+package test.persistence;
+
+import org.junit.Test;
+
+import entities.WorkItem;
+import persistence.MappedLineReader;
+import persistence.ParallelLineReader;
+import persistence.TextSnapshot;
+import persistence.WorkItemLoader;
+import persistence.WorkItemWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class MappedLineReaderTest {
+    private static final String DATA =
+        "Type=Epic;ID=1;Name=Drop 1 | Project Manager Application;Status=COMPLETED;Description=Develop;StartDate=2025-08-01;EndDate=2025-09-01\r\n" +
+        "Type=Phase;ID=5;ParentID=1;Name=Dev Work;Status=COMPLETED;PhaseType=DEVELOPMENT;StartDate=2025-08-04;EndDate=2025-08-14\n" +
+        "\n" +
+        "   Type=Feature;ID=6;ParentID=5;Name=Caf\u00e9 entities;Status=COMPLETED;Description=Unicode line;EstimatedHours=14.0   \n" +
+        "Type=Task;ID=7;ParentID=6;Name=Serialization & Parsing;Status=COMPLETED;Description=;DueDate=2025-08-07;EstimatedHours=8.0\n" +
+        "Type=Task;ID=8;ParentID=42;Name=Orphan;Status=NOT_STARTED\n" +
+        "#CRC32=00000000\n" +
+        "Type=Epic;ID=10;Name=No trailing newline;Status=NOT_STARTED";
+
+    @Test
+    public void testMappedPathMatchesScannerPath() throws IOException {
+        Path file = Files.createTempFile("data", ".txt");
+        try {
+            Files.write(file, DATA.getBytes(StandardCharsets.UTF_8));
+
+            WorkItemLoader scanned = new WorkItemLoader();
+            TextSnapshot.read(file, scanned);
+            WorkItemLoader mapped = new WorkItemLoader();
+            MappedLineReader.read(file, mapped);
+
+            assertEquals(6, mapped.size());
+            assertEquals(scanned.size(), mapped.size());
+            assertEquals(scanned.getMaxId(), mapped.getMaxId());
+            assertEquals(render(scanned.link()), render(mapped.link()));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testParallelPathMatchesSequentialPath() throws IOException {
+        Path file = Files.createTempFile("data", ".txt");
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            Files.write(file, DATA.getBytes(StandardCharsets.UTF_8));
+
+            WorkItemLoader mapped = new WorkItemLoader();
+            MappedLineReader.read(file, mapped);
+            // Tiny chunks so nearly every line lands in its own chunk
+            WorkItemLoader parallel = new WorkItemLoader();
+            ParallelLineReader.read(file, parallel, pool, 16);
+
+            assertEquals(mapped.size(), parallel.size());
+            assertEquals(mapped.getMaxId(), parallel.getMaxId());
+            assertEquals(render(mapped.link()), render(parallel.link()));
+        } finally {
+            pool.shutdown();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static String render(List<WorkItem> roots) throws IOException {
+        StringWriter out = new StringWriter();
+        new WorkItemWriter(out).writeAll(roots);
+        return out.toString();
+    }
+}
@@ -0,0 +1,127 @@
+package test.persistence;
+
+import enums.WorkItemStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import entities.Epic;
+import entities.Feature;
+import entities.Task;
+import entities.WorkItem;
+import persistence.TextSnapshot;
+import persistence.WorkItemLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class TextSnapshotTest {
+    private Path dir;
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("snapshot");
+        file = dir.resolve("data.txt");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    private static List<WorkItem> workspace() {
+        Epic epic = Epic.builder().setName("Epic").setStatus(WorkItemStatus.IN_PROGRESS).build();
+        epic.setID(1);
+        Feature feature = Feature.builder().setName("Feature").setStatus(WorkItemStatus.NOT_STARTED).build();
+        feature.setID(2);
+        Task task = Task.builder().setName("Task").setStatus(WorkItemStatus.COMPLETED).setEstimatedHours(2.0).build();
+        task.setID(3);
+        epic.addChild(feature);
+        feature.addChild(task);
+        return List.of(epic);
+    }
+
+    private List<WorkItem> read() throws IOException {
+        WorkItemLoader loader = new WorkItemLoader();
+        TextSnapshot.read(file, loader);
+        return loader.link();
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        TextSnapshot.write(file, workspace(), 16);
+
+        assertEquals(TextSnapshot.Verification.VALID, TextSnapshot.verify(file));
+        List<WorkItem> roots = read();
+        assertEquals(1, roots.size());
+        WorkItem feature = roots.get(0).getChildren().get(0);
+        assertEquals("Feature", feature.getName());
+        assertEquals(3, feature.getChildren().get(0).getID());
+        assertFalse(Files.exists(dir.resolve("data.txt.tmp")));
+    }
+
+    @Test
+    public void testFlippedByteIsInvalid() throws IOException {
+        TextSnapshot.write(file, workspace(), 1 << 16);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[5] ^= 0x1;
+        Files.write(file, bytes);
+
+        assertEquals(TextSnapshot.Verification.INVALID, TextSnapshot.verify(file));
+    }
+
+    @Test
+    public void testFileWithoutTrailerIsMissing() throws IOException {
+        // Written before checksums were added
+        Files.write(file, List.of("Type=Epic;ID=1;Name=Old;Status=NOT_STARTED"), StandardCharsets.UTF_8);
+
+        assertEquals(TextSnapshot.Verification.MISSING, TextSnapshot.verify(file));
+        assertEquals(1, read().size());
+    }
+
+    @Test
+    public void testLeftoverTempFileDoesNotReplaceTarget() throws IOException {
+        TextSnapshot.write(file, workspace(), 1 << 16);
+        byte[] saved = Files.readAllBytes(file);
+        // A save that crashed before the rename
+        Path temp = dir.resolve("data.txt.tmp");
+        Files.write(temp, List.of("Type=Epic;ID=9;Name=Half writ"), StandardCharsets.UTF_8);
+
+        assertArrayEquals(saved, Files.readAllBytes(file));
+        assertEquals(TextSnapshot.Verification.VALID, TextSnapshot.verify(file));
+
+        // The next save starts the temp file over
+        TextSnapshot.write(file, workspace(), 1 << 16);
+        assertFalse(Files.exists(temp));
+        assertArrayEquals(saved, Files.readAllBytes(file));
+    }
+
+    @Test
+    public void testKeepCopyPreservesDamagedSnapshot() throws IOException {
+        TextSnapshot.write(file, workspace(), 1 << 16);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[5] ^= 0x1;
+        Files.write(file, bytes);
+
+        Path copy = TextSnapshot.keepCopy(file);
+        assertEquals(dir.resolve("data.txt.corrupt"), copy);
+        assertArrayEquals(bytes, Files.readAllBytes(copy));
+
+        // A later save replaces the snapshot but not the copy
+        TextSnapshot.write(file, workspace(), 1 << 16);
+        assertEquals(TextSnapshot.Verification.VALID, TextSnapshot.verify(file));
+        assertArrayEquals(bytes, Files.readAllBytes(copy));
+    }
+}
@@ -0,0 +1,174 @@
+package test.persistence;
+
+import enums.WorkItemStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import entities.Epic;
+import entities.Feature;
+import entities.WorkItem;
+import entities.WorkItemIndex;
+import persistence.WorkItemJournal;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class WorkItemJournalTest {
+    private Path dir;
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("journal");
+        file = dir.resolve("data.journal");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(file.resolveSibling(file.getFileName() + ".tmp"));
+        Files.delete(dir);
+    }
+
+    private static Epic epic(int id) {
+        Epic epic = Epic.builder().setName("Epic " + id).setStatus(WorkItemStatus.NOT_STARTED).build();
+        epic.setID(id);
+        return epic;
+    }
+
+    private static Feature feature(int id) {
+        Feature feature = Feature.builder().setName("Feature " + id).setStatus(WorkItemStatus.NOT_STARTED).build();
+        feature.setID(id);
+        return feature;
+    }
+
+    // Loads the snapshot roots into a new workspace and replays the journal on top, as on startup
+    private List<WorkItem> replay(List<WorkItem> snapshot) throws IOException {
+        List<WorkItem> roots = new ArrayList<>();
+        WorkItemIndex index = new WorkItemIndex(roots);
+        for (WorkItem root : snapshot) {
+            index.addRoot(root);
+        }
+        try (WorkItemJournal journal = new WorkItemJournal(file)) {
+            journal.replay(index);
+        }
+        return roots;
+    }
+
+    private void writeChanges() throws IOException {
+        try (WorkItemJournal journal = new WorkItemJournal(file)) {
+            Epic epic = epic(1);
+            journal.appendAdd(epic);
+            Feature feature = feature(2);
+            epic.addChild(feature);
+            journal.appendAdd(feature);
+            Epic other = epic(3);
+            journal.appendAdd(other);
+            journal.appendDelete(other);
+            feature.setName("Renamed");
+            journal.appendUpdate(feature);
+        }
+    }
+
+    private static void assertReplayed(List<WorkItem> roots) {
+        assertEquals(1, roots.size());
+        WorkItem epic = roots.get(0);
+        assertEquals(1, epic.getID());
+        assertEquals(1, epic.getChildren().size());
+        assertEquals("Renamed", epic.getChildren().get(0).getName());
+    }
+
+    @Test
+    public void testReplayAfterRestart() throws IOException {
+        writeChanges();
+
+        WorkItemJournal journal = new WorkItemJournal(file);
+        List<WorkItem> roots = new ArrayList<>();
+        assertEquals(5, journal.replay(new WorkItemIndex(roots)));
+        assertEquals(5, journal.getRecordCount());
+        assertEquals(3, journal.getMaxId());
+        assertReplayed(roots);
+    }
+
+    @Test
+    public void testReplayOverSnapshotIsIdempotent() throws IOException {
+        writeChanges();
+        List<WorkItem> roots = replay(new ArrayList<>());
+
+        // The snapshot already has the changes when the crash came before the journal was emptied
+        assertReplayed(replay(roots));
+    }
+
+    @Test
+    public void testClearEmptiesJournal() throws IOException {
+        writeChanges();
+        try (WorkItemJournal journal = new WorkItemJournal(file)) {
+            journal.clear(3);
+            journal.appendAdd(epic(4));
+            assertEquals(1, journal.getRecordCount());
+        }
+
+        List<WorkItem> roots = replay(new ArrayList<>());
+        assertEquals(1, roots.size());
+        assertEquals(4, roots.get(0).getID());
+    }
+
+    @Test
+    public void testTornTailIsIgnoredAndTruncated() throws IOException {
+        writeChanges();
+        long complete = Files.size(file);
+        Files.write(file, "0123abcd Op=Add;Type=Epic;ID=9;Na".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        assertReplayed(replay(new ArrayList<>()));
+        assertEquals(complete, Files.size(file));
+
+        // Appends after the truncation replay normally
+        try (WorkItemJournal journal = new WorkItemJournal(file)) {
+            journal.appendAdd(epic(9));
+        }
+        assertEquals(2, replay(new ArrayList<>()).size());
+    }
+
+    @Test
+    public void testReplayStopsAtCorruptRecord() throws IOException {
+        writeChanges();
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        String damaged = lines.get(2).replace("Epic 3", "Epic 8");
+        lines.set(2, damaged);
+        Files.write(file, lines, StandardCharsets.UTF_8);
+
+        // Only the records before the damaged one are kept
+        List<WorkItem> roots = replay(new ArrayList<>());
+        assertEquals(1, roots.size());
+        assertEquals("Feature 2", roots.get(0).getChildren().get(0).getName());
+        assertEquals(2, Files.readAllLines(file, StandardCharsets.UTF_8).size());
+    }
+
+    @Test
+    public void testLastIdSurvivesClear() throws IOException {
+        try (WorkItemJournal journal = new WorkItemJournal(file)) {
+            journal.appendAdd(epic(1));
+            journal.appendAdd(epic(2));
+            journal.appendDelete(epic(2));
+            // The snapshot written before this only has item 1
+            journal.clear(2);
+            assertEquals(0, journal.getRecordCount());
+        }
+
+        List<WorkItem> roots = new ArrayList<>();
+        WorkItemIndex index = new WorkItemIndex(roots);
+        index.addRoot(epic(1));
+        WorkItemJournal reopened = new WorkItemJournal(file);
+        assertEquals(0, reopened.replay(index));
+        assertEquals(2, reopened.getMaxId());
+        assertEquals(1, roots.size());
+    }
+}
@@ -0,0 +1,106 @@
+package test.persistence;
+
+import org.junit.Test;
+
+import entities.WorkItem;
+import persistence.WorkItemLoader;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class WorkItemLoaderTest {
+    private static WorkItemLoader load(String... lines) {
+        WorkItemLoader loader = new WorkItemLoader();
+        for (String line : lines) {
+            loader.addLine(line);
+        }
+        return loader;
+    }
+
+    private static int countAll(List<WorkItem> roots) {
+        int count = 0;
+        for (WorkItem root : roots) {
+            for (WorkItem ignored : root) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void testLinksChildrenToParents() {
+        WorkItemLoader loader = load(
+            "Type=Epic;ID=1;Name=Epic;Status=NOT_STARTED",
+            "Type=Task;ID=3;ParentID=2;Name=Task;Status=NOT_STARTED", // Parent defined later in the file
+            "Type=Feature;ID=2;ParentID=1;Name=Feature;Status=NOT_STARTED");
+        List<WorkItem> roots = loader.link();
+
+        assertEquals(1, roots.size());
+        WorkItem feature = roots.get(0).getChildren().findById(2);
+        assertNotNull(feature);
+        assertSame(feature, feature.getChildren().findById(3).getParent());
+        assertEquals(3, loader.getMaxId());
+    }
+
+    @Test
+    public void testTwoCycleIsBroken() {
+        // 2 and 3 are each other's parent: one link is cut and neither is reachable from a root
+        WorkItemLoader loader = load(
+            "Type=Epic;ID=1;Name=Epic;Status=NOT_STARTED",
+            "Type=Feature;ID=2;ParentID=3;Name=A;Status=NOT_STARTED",
+            "Type=Feature;ID=3;ParentID=2;Name=B;Status=NOT_STARTED");
+        List<WorkItem> roots = loader.link();
+
+        assertEquals(1, roots.size());
+        assertEquals(1, countAll(roots));
+        WorkItem a = loader.getIndex().get(2);
+        WorkItem b = loader.getIndex().get(3);
+        // Exactly one of the two links survives, so walking from either item ends
+        assertTrue((a.getParent() == b) != (b.getParent() == a));
+        assertEquals(2, countAll(List.of(a.getParent() == null ? a : b)));
+    }
+
+    @Test
+    public void testSelfParentIsBroken() {
+        WorkItemLoader loader = load(
+            "Type=Epic;ID=1;Name=Epic;Status=NOT_STARTED",
+            "Type=Feature;ID=2;ParentID=2;Name=Self;Status=NOT_STARTED");
+        List<WorkItem> roots = loader.link();
+
+        WorkItem self = loader.getIndex().get(2);
+        assertNull(self.getParent());
+        assertTrue(self.getChildren().isEmpty());
+        assertEquals(1, countAll(roots));
+    }
+
+    @Test
+    public void testMissingOrTaskParentIsSkipped() {
+        WorkItemLoader loader = load(
+            "Type=Epic;ID=1;Name=Epic;Status=NOT_STARTED",
+            "Type=Task;ID=2;ParentID=1;Name=Task;Status=NOT_STARTED",
+            "Type=Task;ID=3;ParentID=42;Name=Orphan;Status=NOT_STARTED",
+            "Type=Task;ID=4;ParentID=2;Name=Under a task;Status=NOT_STARTED");
+        List<WorkItem> roots = loader.link();
+
+        assertEquals(1, roots.size());
+        assertEquals(2, countAll(roots));
+        assertNull(loader.getIndex().get(3).getParent());
+        assertNull(loader.getIndex().get(4).getParent());
+    }
+
+    @Test
+    public void testDuplicateIdFirstItemIsParent() {
+        WorkItemLoader loader = load(
+            "Type=Epic;ID=1;Name=First;Status=NOT_STARTED",
+            "Type=Epic;ID=1;Name=Second;Status=NOT_STARTED",
+            "Type=Feature;ID=2;ParentID=1;Name=Child;Status=NOT_STARTED");
+        List<WorkItem> roots = loader.link();
+
+        assertEquals(2, roots.size());
+        assertEquals("First", loader.getIndex().get(1).getName());
+        assertEquals("First", loader.getIndex().get(2).getParent().getName());
+        assertEquals(1, roots.get(0).getChildren().size());
+        assertTrue(roots.get(1).getChildren().isEmpty());
+    }
+}
@@ -0,0 +1,265 @@
+package test.sync;
+
+import enums.WorkItemStatus;
+import org.junit.Test;
+
+import entities.Epic;
+import entities.Feature;
+import entities.WorkItem;
+import entities.WorkItemIndex;
+import sync.BatchingSyncEngine;
+import sync.InProcessSyncServer;
+import sync.RetryPolicy;
+import sync.SyncMetrics;
+import sync.SyncResult;
+import sync.SyncTransport;
+import utils.LineTokenizer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class BatchingSyncEngineTest {
+    private static List<WorkItem> items(int count) {
+        List<WorkItem> items = new ArrayList<>(count);
+        Epic epic = Epic.builder().setName("Epic").setStatus(WorkItemStatus.NOT_STARTED).build();
+        epic.setID(1);
+        items.add(epic);
+        for (int id = 2; id <= count; id++) {
+            Feature feature = Feature.builder().setName("Feature " + id).setStatus(WorkItemStatus.IN_PROGRESS).build();
+            feature.setID(id);
+            epic.addChild(feature);
+            items.add(feature);
+        }
+        return items;
+    }
+
+    private static SyncResult sync(InProcessSyncServer server, List<WorkItem> items, int batchSize, int maxInFlight)
+            throws InterruptedException {
+        return BatchingSyncEngine.builder()
+                .setTransport(server)
+                .setBatchSize(batchSize)
+                .setMaxInFlight(maxInFlight)
+                .build()
+                .sync(items);
+    }
+
+    @Test
+    public void testEveryItemArrivesInBatches() throws InterruptedException {
+        List<WorkItem> items = items(1050);
+        InProcessSyncServer server = new InProcessSyncServer(0, 2);
+
+        SyncResult result = sync(server, items, 100, 4);
+
+        assertTrue(result.isComplete());
+        // The epic goes out alone in the first wave, then its 1049 children
+        assertEquals(12, result.getBatches());
+        assertEquals(12, server.getRequestCount());
+        assertEquals(2, result.getWaves().size());
+        assertEquals(1050, server.getRecordCount());
+        assertEquals(items.get(9).serialize(1), server.getRecord(10));
+        assertTrue(server.getMaxInFlight() <= 4);
+    }
+
+    @Test
+    public void testFailedBatchesAreReported() throws InterruptedException {
+        List<WorkItem> items = items(500);
+        SyncResult result = BatchingSyncEngine.builder()
+                .setTransport(batch -> { throw new IOException("Server unavailable"); })
+                .setBatchSize(100)
+                .setRetryPolicy(RetryPolicy.none())
+                .build()
+                .sync(items);
+
+        assertFalse(result.isComplete());
+        // The epic failed, so its children are not sent as orphans
+        assertEquals(1, result.getFailedBatches());
+        assertEquals(1, result.getWaves().size());
+        assertEquals(0, result.getSyncedItems());
+    }
+
+    // Requests overlap up to the limit instead of going out one after the other
+    @Test
+    public void testRequestsInFlightAreBoundedAndOverlap() throws InterruptedException {
+        List<WorkItem> items = items(2001);
+
+        InProcessSyncServer serial = new InProcessSyncServer(5, 5);
+        assertTrue(sync(serial, items, 100, 1).isComplete());
+        assertEquals(1, serial.getMaxInFlight());
+
+        InProcessSyncServer concurrent = new InProcessSyncServer(5, 5);
+        assertTrue(sync(concurrent, items, 100, 8).isComplete());
+        assertTrue(concurrent.getMaxInFlight() > 1);
+        assertTrue(concurrent.getMaxInFlight() <= 8);
+    }
+
+    @Test
+    public void testSyncChangesShipsOnlyTheDelta() throws InterruptedException {
+        List<WorkItem> roots = new ArrayList<>();
+        WorkItemIndex index = new WorkItemIndex(roots);
+        List<WorkItem> items = items(1000);
+        index.addRoot(items.get(0));
+
+        InProcessSyncServer server = new InProcessSyncServer(0, 0);
+        BatchingSyncEngine engine = BatchingSyncEngine.builder().setTransport(server).setBatchSize(100).build();
+
+        // First sync: everything is new
+        SyncResult first = engine.syncChanges(index);
+        assertEquals(1000, first.getSyncedItems());
+        assertEquals(1000, server.getRecordCount());
+        assertEquals(WorkItem.currentVersion(), engine.getWatermark());
+
+        // Nothing changed
+        assertEquals(0, engine.syncChanges(index).getItems());
+
+        // One rename, one new child and one delete
+        items.get(10).setName("Renamed");
+        Feature added = Feature.builder().setName("Added").setStatus(WorkItemStatus.NOT_STARTED).build();
+        added.setID(1001);
+        items.get(0).addChild(added);
+        index.remove(items.get(20));
+
+        SyncResult delta = engine.syncChanges(index);
+        assertEquals(2, delta.getItems());
+        assertEquals(1, delta.getDeletes());
+        assertTrue(delta.isComplete());
+        assertEquals(items.get(10).serialize(1), server.getRecord(11));
+        assertNotNull(server.getRecord(1001));
+        assertNull(server.getRecord(21));
+        assertTrue(index.getDirtyItems().isEmpty());
+    }
+
+    @Test
+    public void testFailedSyncKeepsChangesForTheNextOne() throws InterruptedException {
+        List<WorkItem> roots = new ArrayList<>();
+        WorkItemIndex index = new WorkItemIndex(roots);
+        index.addRoot(items(50).get(0));
+
+        BatchingSyncEngine failing = BatchingSyncEngine.builder()
+                .setTransport(batch -> { throw new IOException("Server unavailable"); })
+                .setRetryPolicy(RetryPolicy.none())
+                .build();
+        assertFalse(failing.syncChanges(index).isComplete());
+        assertEquals(50, index.getDirtyItems().size());
+        assertEquals(0, failing.getWatermark());
+    }
+
+    @Test
+    public void testFailedRequestsAreRetriedWithBackoff() throws InterruptedException {
+        InProcessSyncServer server = new InProcessSyncServer(0, 0);
+        AtomicInteger calls = new AtomicInteger();
+        // Every other request fails
+        SyncTransport flaky = batch -> {
+            if (calls.incrementAndGet() % 2 == 1) throw new IOException("Connection reset");
+            server.send(batch);
+        };
+        BatchingSyncEngine engine = BatchingSyncEngine.builder()
+                .setTransport(flaky)
+                .setBatchSize(10)
+                .setMaxInFlight(1)
+                .setRetryPolicy(RetryPolicy.builder().setMaxAttempts(3).setInitialBackoffMillis(1).setMaxBackoffMillis(5).build())
+                .build();
+
+        SyncResult result = engine.sync(items(100));
+
+        assertTrue(result.isComplete());
+        assertEquals(100, server.getRecordCount());
+        SyncMetrics metrics = engine.getMetrics();
+        assertEquals(200, metrics.getAttempted());
+        assertEquals(100, metrics.getSucceeded());
+        assertEquals(100, metrics.getRetried());
+        assertEquals(0, metrics.getFailed());
+        assertEquals(22, metrics.getRequestCount());
+    }
+
+    @Test
+    public void testInterruptedSyncResumesFromCheckpoint() throws InterruptedException, IOException {
+        Path checkpointFile = Files.createTempFile("sync", ".checkpoint");
+        Files.delete(checkpointFile);
+        try {
+            List<WorkItem> roots = new ArrayList<>();
+            WorkItemIndex index = new WorkItemIndex(roots);
+            List<WorkItem> items = items(1000);
+            index.addRoot(items.get(0));
+
+            // The connection drops after 4 batches: the epic, then 3 batches of its children
+            InProcessSyncServer server = new InProcessSyncServer(0, 0);
+            AtomicInteger calls = new AtomicInteger();
+            SyncTransport dropping = batch -> {
+                if (calls.incrementAndGet() > 4) throw new IOException("Connection lost");
+                server.send(batch);
+            };
+            SyncResult interrupted = BatchingSyncEngine.builder()
+                    .setTransport(dropping)
+                    .setBatchSize(100)
+                    .setMaxInFlight(1)
+                    .setRetryPolicy(RetryPolicy.none())
+                    .setCheckpointFile(checkpointFile)
+                    .build()
+                    .syncChanges(index);
+            assertFalse(interrupted.isComplete());
+            assertEquals(301, interrupted.getSyncedItems());
+            assertTrue(Files.exists(checkpointFile));
+
+            // Item 5 was sent before the drop but edited since, so it goes again
+            items.get(4).setName("Edited");
+
+            BatchingSyncEngine resumed = BatchingSyncEngine.builder()
+                    .setTransport(server)
+                    .setBatchSize(100)
+                    .setCheckpointFile(checkpointFile)
+                    .build();
+            SyncResult result = resumed.syncChanges(index);
+
+            assertTrue(result.isComplete());
+            assertEquals(1000, server.getRecordCount());
+            assertEquals(700, resumed.getMetrics().getSucceeded());
+            assertEquals(items.get(4).serialize(1), server.getRecord(5));
+            assertFalse(Files.exists(checkpointFile));
+        } finally {
+            Files.deleteIfExists(checkpointFile);
+        }
+    }
+
+    @Test
+    public void testParentsGoOutBeforeChildrenAndEpicsInterleave() throws InterruptedException {
+        List<WorkItem> items = new ArrayList<>();
+        for (int e = 0; e < 3; e++) {
+            Epic epic = Epic.builder().setName("Epic " + e).setStatus(WorkItemStatus.NOT_STARTED).build();
+            epic.setID(100 * (e + 1));
+            for (int f = 1; f <= 3; f++) {
+                Feature feature = Feature.builder().setName("Feature").setStatus(WorkItemStatus.NOT_STARTED).build();
+                feature.setID(epic.getID() + f);
+                epic.addChild(feature);
+            }
+            // Children listed before their parent, as a dirty list can be
+            items.addAll(epic.getChildren());
+            items.add(epic);
+        }
+
+        List<String> received = Collections.synchronizedList(new ArrayList<>());
+        SyncResult result = BatchingSyncEngine.builder()
+                .setTransport(received::addAll)
+                .setBatchSize(2)
+                .setMaxInFlight(1)
+                .build()
+                .sync(items);
+
+        List<Integer> order = new ArrayList<>();
+        LineTokenizer tokens = new LineTokenizer();
+        for (String record : received) {
+            order.add(tokens.reset(record).getInt("id"));
+        }
+        assertEquals(Arrays.asList(100, 200, 300, 101, 201, 301, 102, 202, 302, 103, 203, 303), order);
+        assertEquals(2, result.getWaves().size());
+        assertEquals(3, result.getWaves().get(0).getItems());
+        assertEquals(9, result.getWaves().get(1).getItems());
+    }
+}
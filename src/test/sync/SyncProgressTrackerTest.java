@@ -0,0 +1,42 @@
+package test.sync;
+
+import org.junit.Test;
+
+import sync.SyncProgressTracker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class SyncProgressTrackerTest {
+    @Test
+    public void testCountsFromManyThreadsAndReportsTheFinalTotal() throws InterruptedException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true);
+        SyncProgressTracker progress = new SyncProgressTracker(8_000_000, 5, out).start();
+
+        Thread[] workers = new Thread[8];
+        for (int t = 0; t < workers.length; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < 1_000_000; i++) {
+                    progress.add(1);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        progress.close();
+
+        assertEquals(8_000_000, progress.getDone());
+        String[] lines = new String(bytes.toByteArray(), StandardCharsets.UTF_8).trim().split("\\R");
+        assertEquals("Progress: 100% (8000000/8000000)", lines[lines.length - 1]);
+        // Printed only when the count moved, so never the same line twice in a row
+        for (int i = 1; i < lines.length; i++) {
+            assertNotEquals(lines[i - 1], lines[i]);
+        }
+    }
+}
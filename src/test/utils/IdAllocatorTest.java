@@ -0,0 +1,42 @@
+package test.utils;
+
+import org.junit.Test;
+
+import utils.IdAllocator;
+
+import static org.junit.Assert.*;
+
+public class IdAllocatorTest {
+    @Test
+    public void testNextFollowsSeed() {
+        IdAllocator allocator = new IdAllocator(7);
+        assertEquals(8, allocator.next());
+        assertEquals(9, allocator.next());
+        assertEquals(9, allocator.getLastId());
+    }
+
+    @Test
+    public void testSeedNeverMovesBackwards() {
+        IdAllocator allocator = new IdAllocator();
+        allocator.seed(10);
+        allocator.seed(4); // e.g. a journal with older items than the snapshot
+        assertEquals(10, allocator.getLastId());
+        assertEquals(11, allocator.next());
+        allocator.seed(11);
+        assertEquals(12, allocator.next());
+    }
+
+    @Test
+    public void testReserveReturnsConsecutiveBlocks() {
+        IdAllocator allocator = new IdAllocator(3);
+        assertEquals(4, allocator.reserve(5));
+        assertEquals(8, allocator.getLastId());
+        assertEquals(9, allocator.reserve(1));
+        assertEquals(10, allocator.next());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReserveRejectsEmptyBlock() {
+        new IdAllocator().reserve(0);
+    }
+}
@@ -0,0 +1,91 @@
+package test.utils;
+
+import org.junit.Test;
+
+import utils.IntHashSet;
+import utils.IntObjectMap;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class IntHashSetTest {
+    @Test
+    public void testAddContainsRemove() {
+        IntHashSet set = new IntHashSet();
+        assertTrue(set.add(5));
+        assertFalse(set.add(5));
+        assertTrue(set.add(0));
+        assertTrue(set.add(-3));
+        assertEquals(3, set.size());
+        assertTrue(set.contains(0));
+        assertTrue(set.remove(0));
+        assertFalse(set.contains(0));
+        assertFalse(set.remove(42));
+        assertEquals(2, set.size());
+
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(5));
+    }
+
+    // Random adds and removes against HashSet, enough to grow the table and hit long probe runs
+    @Test
+    public void testMatchesHashSet() {
+        Random random = new Random(42);
+        IntHashSet set = new IntHashSet();
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            int value = random.nextInt(5_000);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value));
+            } else {
+                assertEquals(expected.remove(value), set.remove(value));
+            }
+        }
+        assertEquals(expected.size(), set.size());
+        for (int value = 0; value < 5_000; value++) {
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+    }
+
+    @Test
+    public void testIntObjectMapMatchesHashMap() {
+        Random random = new Random(7);
+        IntObjectMap<String> map = new IntObjectMap<>();
+        Map<Integer, String> expected = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(5_000) - 100; // Includes 0 and negative keys
+            String value = "v" + i;
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(expected.put(key, value), map.put(key, value));
+                    break;
+                case 1:
+                    assertEquals(expected.putIfAbsent(key, value), map.putIfAbsent(key, value));
+                    break;
+                default:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int key = -100; key < 4_900; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+
+    @Test
+    public void testIntObjectMapConditionalRemove() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        String value = new String("a");
+        map.put(1, value);
+        assertNull(map.remove(1, new String("a"))); // Matched by identity
+        assertSame(value, map.remove(1, value));
+        assertTrue(map.isEmpty());
+    }
+}
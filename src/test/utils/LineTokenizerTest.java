@@ -0,0 +1,90 @@
+package test.utils;
+
+import org.junit.Test;
+
+import entities.WorkItem;
+import enums.WorkItemStatus;
+import factories.WorkItemFactory;
+import utils.LineTokenizer;
+import utils.ParseUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class LineTokenizerTest {
+    @Test
+    public void testTokenizerMatchesParseUtils() {
+        String[] lines = {
+            "Type=Task;ID=7;ParentID=6;Name=Serialization & Parsing;Status=COMPLETED;Description=;DueDate=2025-08-07",
+            " type = Epic ; id = 12 ;NAME= Spaced out ;Status=in_progress",
+            "Type=Feature;ID=3;Description=a=b=c;NoEqualsSign;EstimatedHours=",
+            "Type=Milestone;ID=1;ID=2;Name=Repeated key",
+            ""
+        };
+
+        LineTokenizer tokens = new LineTokenizer();
+        for (String line : lines) {
+            Map<String, String> expected = ParseUtils.parseKeyValuePairs(line);
+            tokens.reset(line);
+            for (Map.Entry<String, String> entry : expected.entrySet()) {
+                assertTrue(tokens.has(entry.getKey()));
+                assertEquals(entry.getValue(), tokens.get(entry.getKey()));
+            }
+            assertFalse(tokens.has("missing"));
+        }
+    }
+
+    @Test
+    public void testTokenizerTypedValues() {
+        LineTokenizer tokens = new LineTokenizer().reset("Type=Task;ID=42;ParentID=x;Status=completed;EstimatedHours=2.5");
+
+        assertEquals(42, tokens.getInt("id"));
+        assertNull(tokens.getInteger("parentid"));
+        assertEquals(WorkItemStatus.COMPLETED, tokens.getEnum("status", WorkItemStatus.values()));
+        assertEquals(2.5, tokens.getDouble("estimatedhours"), 0.0001);
+        assertTrue(tokens.valueEqualsIgnoreCase(tokens.find("type"), "TASK"));
+    }
+
+    @Test
+    public void testGeneratedLinesParseIntoWorkItems() throws IOException {
+        Path file = Files.createTempFile("workitems", ".txt");
+        try {
+            writeSampleFile(file, 1000);
+            LineTokenizer tokens = new LineTokenizer();
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                WorkItem fromString = WorkItemFactory.createWorkItem(line);
+                WorkItem fromTokens = WorkItemFactory.createWorkItem(tokens.reset(line));
+                assertNotNull(fromTokens);
+                assertEquals(fromString.serialize(WorkItem.getParentIdFromLine(line)), fromTokens.serialize(tokens.getInteger("parentid")));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Epics with features and tasks underneath, in the data.txt format
+    private static void writeSampleFile(Path file, int lines) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            int epicId = 0;
+            int featureId = 0;
+            for (int id = 1; id <= lines; id++) {
+                if (id % 100 == 1) {
+                    epicId = id;
+                    writer.write("Type=Epic;ID=" + id + ";Name=Epic " + id + ";Status=IN_PROGRESS;Description=Generated epic;StartDate=2025-01-01;EndDate=");
+                } else if (id % 10 == 2) {
+                    featureId = id;
+                    writer.write("Type=Feature;ID=" + id + ";ParentID=" + epicId + ";Name=Feature " + id + ";Status=NOT_STARTED;Description=Generated feature;EstimatedHours=12.5");
+                } else {
+                    writer.write("Type=Task;ID=" + id + ";ParentID=" + featureId + ";Name=Task " + id + ";Status=COMPLETED;Description=Generated task;DueDate=2025-02-01;EstimatedHours=2.0");
+                }
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Hands out work item IDs in increasing order.
+// Seeded at load time with the highest ID in the snapshot and the journal, then each ID is a single atomic increment.
+// The snapshot only has the items that still exist, so the journal keeps the last ID handed out across compactions
+// (see WorkItemJournal.clear); otherwise the IDs of the newest deleted items would be handed out again after a restart.
+public class IdAllocator {
+    private final AtomicInteger lastId = new AtomicInteger();
+
+    public IdAllocator() {}
+
+    public IdAllocator(int maxId) {
+        seed(maxId);
+    }
+
+    // Never moves the counter backwards, so seeding from several sources keeps the highest
+    public void seed(int maxId) {
+        lastId.accumulateAndGet(maxId, Math::max);
+    }
+
+    public int next() {
+        return lastId.incrementAndGet();
+    }
+
+    // Reserves a block of consecutive IDs (e.g. for bulk imports) and returns the first one
+    public int reserve(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Block size must be at least 1, got " + count);
+        }
+        return lastId.getAndAdd(count) + 1;
+    }
+
+    public int getLastId() { return lastId.get(); }
+}
@@ -0,0 +1,131 @@
+package utils;
+
+import java.util.Arrays;
+
+// Set of int values without boxing: open addressing with linear probing over one int array.
+// 0 marks a free slot, so the value 0 itself is tracked by a flag. Removal shifts the following
+// entries back instead of leaving tombstones, and clear() keeps the table, so a set reused for
+// every traversal allocates nothing once it has grown to the workspace size.
+public class IntHashSet {
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private int mask;
+    private int size; // Not counting 0
+    private boolean hasZero;
+
+    public IntHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    public IntHashSet(int expectedSize) {
+        if (expectedSize < 0) throw new IllegalArgumentException("Expected size cannot be negative");
+        allocate(tableSize(expectedSize));
+    }
+
+    // Returns false if the value was already in the set
+    public boolean add(int value) {
+        if (value == 0) {
+            if (hasZero) return false;
+            hasZero = true;
+            return true;
+        }
+
+        int slot = slot(value, mask);
+        while (keys[slot] != 0) {
+            if (keys[slot] == value) return false;
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = value;
+        if (++size > (mask + 1) >> 1) { // Load factor 0.5
+            rehash(keys.length * 2);
+        }
+        return true;
+    }
+
+    public boolean contains(int value) {
+        if (value == 0) return hasZero;
+
+        int slot = slot(value, mask);
+        while (keys[slot] != 0) {
+            if (keys[slot] == value) return true;
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    // Returns false if the value was not in the set
+    public boolean remove(int value) {
+        if (value == 0) {
+            if (!hasZero) return false;
+            hasZero = false;
+            return true;
+        }
+
+        int slot = slot(value, mask);
+        while (keys[slot] != value) {
+            if (keys[slot] == 0) return false;
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = 0;
+        size--;
+
+        // Moves back the entries of the same probe run that can no longer be reached past the free slot
+        int free = slot;
+        slot = (slot + 1) & mask;
+        while (keys[slot] != 0) {
+            int home = slot(keys[slot], mask);
+            if (((slot - home) & mask) >= ((slot - free) & mask)) {
+                keys[free] = keys[slot];
+                keys[slot] = 0;
+                free = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return true;
+    }
+
+    public int size() { return this.size + (this.hasZero ? 1 : 0); }
+
+    public boolean isEmpty() { return size() == 0; }
+
+    // Empties the set but keeps its table
+    public void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+        hasZero = false;
+    }
+
+    private void rehash(int capacity) {
+        int[] old = keys;
+        allocate(capacity);
+        for (int key : old) {
+            if (key != 0) {
+                int slot = slot(key, mask);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    static int tableSize(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity >> 1 < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    // Spreads consecutive IDs over the table (Fibonacci hashing), then keeps the bits of the table size
+    static int slot(int key, int mask) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,162 @@
+package utils;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+// Map from int keys to objects without boxing the keys, laid out like IntHashSet: open addressing with
+// linear probing over parallel key and value arrays, the key 0 kept apart, and backward-shift removal.
+// Null values are not allowed, get returns null for a missing key.
+public class IntObjectMap<V> {
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int size; // Not counting 0
+    private V zeroValue;
+
+    public IntObjectMap() {
+        this(0);
+    }
+
+    public IntObjectMap(int expectedSize) {
+        if (expectedSize < 0) throw new IllegalArgumentException("Expected size cannot be negative");
+        allocate(IntHashSet.tableSize(expectedSize));
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        if (key == 0) return zeroValue;
+
+        int slot = IntHashSet.slot(key, mask);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) return (V) values[slot];
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    // Returns the previous value, or null
+    public V put(int key, V value) {
+        return put(key, value, true);
+    }
+
+    // Keeps the current value if there is one and returns it, otherwise adds the value and returns null
+    public V putIfAbsent(int key, V value) {
+        return put(key, value, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V put(int key, V value, boolean replace) {
+        if (value == null) throw new NullPointerException("Value cannot be null");
+        if (key == 0) {
+            V previous = zeroValue;
+            if (previous == null || replace) zeroValue = value;
+            return previous;
+        }
+
+        int slot = IntHashSet.slot(key, mask);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                if (replace) values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > (mask + 1) >> 1) { // Load factor 0.5
+            rehash(keys.length * 2);
+        }
+        return null;
+    }
+
+    // Returns the removed value, or null
+    public V remove(int key) {
+        return remove(key, null);
+    }
+
+    // Removes the key only while it maps to this exact value (any value if expected is null)
+    @SuppressWarnings("unchecked")
+    public V remove(int key, Object expected) {
+        if (key == 0) {
+            V previous = zeroValue;
+            if (previous == null || (expected != null && previous != expected)) return null;
+            zeroValue = null;
+            return previous;
+        }
+
+        int slot = IntHashSet.slot(key, mask);
+        while (keys[slot] != key) {
+            if (keys[slot] == 0) return null;
+            slot = (slot + 1) & mask;
+        }
+        V previous = (V) values[slot];
+        if (expected != null && previous != expected) return null;
+        keys[slot] = 0;
+        values[slot] = null;
+        size--;
+
+        // Moves back the entries of the same probe run that can no longer be reached past the free slot
+        int free = slot;
+        slot = (slot + 1) & mask;
+        while (keys[slot] != 0) {
+            int home = IntHashSet.slot(keys[slot], mask);
+            if (((slot - home) & mask) >= ((slot - free) & mask)) {
+                keys[free] = keys[slot];
+                values[free] = values[slot];
+                keys[slot] = 0;
+                values[slot] = null;
+                free = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return previous;
+    }
+
+    public int size() { return this.size + (this.zeroValue != null ? 1 : 0); }
+
+    public boolean isEmpty() { return size() == 0; }
+
+    // Empties the map but keeps its tables
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        size = 0;
+        zeroValue = null;
+    }
+
+    // Visits every value, in no particular order
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> action) {
+        if (zeroValue != null) action.accept(zeroValue);
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) action.accept((V) values[slot]);
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = IntHashSet.slot(oldKeys[i], mask);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+}
@@ -0,0 +1,157 @@
+package utils;
+
+import java.time.LocalDate;
+
+// Cursor-based tokenizer for "Key=Value;Key=Value" lines.
+// reset() scans the line once and only records where each key and value starts and ends,
+// so keys are matched in place and no arrays, maps or key strings are created per line.
+// Keys are matched case-insensitively and keys/values are trimmed, like ParseUtils.parseKeyValuePairs.
+// A tokenizer can be reused for any number of lines, but is not thread-safe.
+public class LineTokenizer {
+    private static final int SLOTS = 4; // key start, key end, value start, value end
+
+    private CharSequence line;
+    private int count;
+    private int[] bounds = new int[16 * SLOTS];
+
+    public LineTokenizer reset(CharSequence line) {
+        this.line = line;
+        this.count = 0;
+        if (line == null) return this;
+
+        int length = line.length();
+        int start = 0;
+        while (start < length) {
+            int end = start;
+            int equals = -1;
+            while (end < length && line.charAt(end) != ';') {
+                if (equals < 0 && line.charAt(end) == '=') equals = end;
+                end++;
+            }
+            // Segments without '=' are ignored
+            if (equals >= 0) {
+                addField(start, equals, equals + 1, end);
+            }
+            start = end + 1;
+        }
+        return this;
+    }
+
+    private void addField(int keyStart, int keyEnd, int valueStart, int valueEnd) {
+        while (keyStart < keyEnd && line.charAt(keyStart) <= ' ') keyStart++;
+        while (keyEnd > keyStart && line.charAt(keyEnd - 1) <= ' ') keyEnd--;
+        while (valueStart < valueEnd && line.charAt(valueStart) <= ' ') valueStart++;
+        while (valueEnd > valueStart && line.charAt(valueEnd - 1) <= ' ') valueEnd--;
+
+        if ((count + 1) * SLOTS > bounds.length) {
+            int[] grown = new int[bounds.length * 2];
+            System.arraycopy(bounds, 0, grown, 0, bounds.length);
+            bounds = grown;
+        }
+        int slot = count * SLOTS;
+        bounds[slot] = keyStart;
+        bounds[slot + 1] = keyEnd;
+        bounds[slot + 2] = valueStart;
+        bounds[slot + 3] = valueEnd;
+        count++;
+    }
+
+    public CharSequence getLine() { return this.line; }
+
+    public int getFieldCount() { return this.count; }
+
+    // Returns the index of the field with the given lowercase key, or -1.
+    // If a key is repeated the last one wins, as it would in a map.
+    public int find(String key) {
+        for (int i = count - 1; i >= 0; i--) {
+            int slot = i * SLOTS;
+            if (regionEqualsIgnoreCase(bounds[slot], bounds[slot + 1], key)) return i;
+        }
+        return -1;
+    }
+
+    public boolean has(String key) {
+        return find(key) >= 0;
+    }
+
+    public boolean valueEqualsIgnoreCase(int field, String value) {
+        if (field < 0) return false;
+        int slot = field * SLOTS;
+        return regionEqualsIgnoreCase(bounds[slot + 2], bounds[slot + 3], value);
+    }
+
+    public String getValue(int field) {
+        int slot = field * SLOTS;
+        return line.subSequence(bounds[slot + 2], bounds[slot + 3]).toString();
+    }
+
+    public String get(String key) {
+        int field = find(key);
+        return field >= 0 ? getValue(field) : null;
+    }
+
+    // Parses the value in place, throws NumberFormatException if missing or not a number
+    public int getInt(String key) {
+        int field = find(key);
+        if (field < 0) throw new NumberFormatException("Missing value for " + key);
+        int slot = field * SLOTS;
+        return Integer.parseInt(line, bounds[slot + 2], bounds[slot + 3], 10);
+    }
+
+    // Returns null if the key is missing or not a number
+    public Integer getInteger(String key) {
+        try {
+            return has(key) ? getInt(key) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public Double getDouble(String key) {
+        return Double.parseDouble(get(key));
+    }
+
+    // ISO dates (yyyy-MM-dd) are read in place, anything else goes through LocalDate.parse
+    public LocalDate getDate(String key) {
+        int field = find(key);
+        if (field >= 0) {
+            int slot = field * SLOTS;
+            int start = bounds[slot + 2];
+            if (bounds[slot + 3] - start == 10 && line.charAt(start + 4) == '-' && line.charAt(start + 7) == '-'
+                    && isDigits(start, start + 4) && isDigits(start + 5, start + 7) && isDigits(start + 8, start + 10)) {
+                return LocalDate.of(
+                    Integer.parseInt(line, start, start + 4, 10),
+                    Integer.parseInt(line, start + 5, start + 7, 10),
+                    Integer.parseInt(line, start + 8, start + 10, 10));
+            }
+        }
+        return LocalDate.parse(get(key));
+    }
+
+    // Matches the value against the constant names ignoring case, without creating an upper case copy
+    public <E extends Enum<E>> E getEnum(String key, E[] constants) {
+        int field = find(key);
+        for (E constant : constants) {
+            if (valueEqualsIgnoreCase(field, constant.name())) return constant;
+        }
+        throw new IllegalArgumentException("No constant matching " + key + (field >= 0 ? "=" + getValue(field) : ""));
+    }
+
+    private boolean isDigits(int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
+    private boolean regionEqualsIgnoreCase(int start, int end, String other) {
+        if (end - start != other.length()) return false;
+        for (int i = 0; i < other.length(); i++) {
+            char a = line.charAt(start + i);
+            char b = other.charAt(i);
+            if (a != b && Character.toLowerCase(a) != Character.toLowerCase(b)) return false;
+        }
+        return true;
+    }
+}
@@ -1,19 +1,19 @@
 package validators;
 
 import entities.WorkItem;
-import java.util.List;
+import entities.WorkItemIndex;
 
 public class ExistingWorkItemValidator extends InputValidator {
-    private final List<WorkItem> workItems;
+    private final WorkItemIndex workItemIndex;
 
-    public ExistingWorkItemValidator(List<WorkItem> workItems) {
-        this.workItems = workItems;
+    public ExistingWorkItemValidator(WorkItemIndex workItemIndex) {
+        this.workItemIndex = workItemIndex;
     }
 
     @Override
     public boolean validate(String input) {
         int id = Integer.parseInt(input.trim());
-        WorkItem found = WorkItem.findById(workItems, id);
+        WorkItem found = workItemIndex.findById(id);
         if (found == null) {
             System.out.println("No work item found with ID " + id + ".");
             return false;
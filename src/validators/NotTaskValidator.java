@@ -1,20 +1,20 @@
 package validators;
 
 import entities.WorkItem;
+import entities.WorkItemIndex;
 import entities.Task;
-import java.util.List;
 
 public class NotTaskValidator extends InputValidator {
-    private final List<WorkItem> workItems;
+    private final WorkItemIndex workItemIndex;
 
-    public NotTaskValidator(List<WorkItem> workItems) {
-        this.workItems = workItems;
+    public NotTaskValidator(WorkItemIndex workItemIndex) {
+        this.workItemIndex = workItemIndex;
     }
 
     @Override
     public boolean validate(String input) {
         int id = Integer.parseInt(input.trim());
-        WorkItem found = WorkItem.findById(workItems, id);
+        WorkItem found = workItemIndex.findById(id);
         if (found instanceof Task) {
             System.out.println("Parent cannot be a Task.");
             return false;